@@ -0,0 +1,129 @@
+package com.github.bogdanlivadariu.jenkins.reporting;
+
+import hudson.Util;
+
+import javax.annotation.CheckForNull;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The checksums recorded for the files of a report directory, kept in a binary file next to the report directory
+ * rather than in build.xml. The file holds the paths in sorted order, each followed by its raw SHA-1 digest, so a
+ * lookup is a binary search over the loaded paths.
+ */
+final class ChecksumManifest {
+
+    /**
+     * Suffix of the manifest file, which is named after the report directory and written in the same build folder,
+     * outside of the served tree.
+     */
+    static final String FILE_NAME = "checksums.sha1";
+
+    private static final int MAGIC = 0x53414d46;
+
+    private static final int VERSION = 1;
+
+    private static final int DIGEST_LENGTH = 20;
+
+    private final String[] paths;
+
+    private final byte[] digests;
+
+    private ChecksumManifest(String[] paths, byte[] digests) {
+        this.paths = paths;
+        this.digests = digests;
+    }
+
+    /**
+     * @param file the manifest file
+     * @param checksums the hex encoded checksums, by path relative to the report directory
+     * @throws IOException if the manifest cannot be written
+     */
+    static void write(File file, Map<String, String> checksums) throws IOException {
+        Map<String, String> sorted = new TreeMap<>(checksums);
+        Path temp = Files.createTempFile(file.getParentFile().toPath(), FILE_NAME, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(sorted.size());
+                for (Map.Entry<String, String> checksum : sorted.entrySet()) {
+                    byte[] path = checksum.getKey().getBytes(StandardCharsets.UTF_8);
+                    byte[] digest = Util.fromHexString(checksum.getValue());
+                    if (path.length > 0xffff || digest.length != DIGEST_LENGTH) {
+                        throw new IOException("Cannot record the checksum of " + checksum.getKey());
+                    }
+                    out.writeShort(path.length);
+                    out.write(path);
+                    out.write(digest);
+                }
+            }
+            Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @param file the manifest file
+     * @return the manifest, null if the file does not exist
+     * @throws IOException if the manifest cannot be read or is not a manifest
+     */
+    @CheckForNull
+    static ChecksumManifest read(File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (content.getInt() != MAGIC || content.getInt() != VERSION) {
+                throw new IOException(file + " is not a checksum manifest");
+            }
+            int count = content.getInt();
+            if (count < 0) {
+                throw new IOException(file + " is corrupted");
+            }
+            String[] paths = new String[count];
+            byte[] digests = new byte[count * DIGEST_LENGTH];
+            for (int i = 0; i < count; i++) {
+                byte[] path = new byte[content.getShort() & 0xffff];
+                content.get(path);
+                paths[i] = new String(path, StandardCharsets.UTF_8);
+                content.get(digests, i * DIGEST_LENGTH, DIGEST_LENGTH);
+            }
+            return new ChecksumManifest(paths, digests);
+        } catch (BufferUnderflowException e) {
+            throw new IOException(file + " is truncated", e);
+        }
+    }
+
+    /**
+     * @param path the path relative to the report directory
+     * @return the hex encoded checksum recorded for the path, null if there is none
+     */
+    @CheckForNull
+    String get(String path) {
+        int index = Arrays.binarySearch(paths, path);
+        if (index < 0) {
+            return null;
+        }
+        return Util.toHexString(digests, index * DIGEST_LENGTH, DIGEST_LENGTH);
+    }
+
+    int size() {
+        return paths.length;
+    }
+}
@@ -0,0 +1,768 @@
+package com.github.bogdanlivadariu.jenkins.reporting;
+
+import hudson.Util;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import jenkins.util.SystemProperties;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The last durations of every test of a job, kept by the publishers in three binary files next to the job config. The
+ * keys file lists the identities of the tests in the order they were first seen, it is only ever appended to. The
+ * samples file holds one fixed length slot per key, at the same position: the number of the last build the test ran
+ * in, how many durations were recorded and a ring of the last durations. The index file is an open addressing hash
+ * table from the keys to their slots, so recording a build only looks up the keys of its own tests, writes their
+ * slots in a few contiguous runs and appends the keys of its new tests, whatever the size of the history.
+ * <p>
+ * Once every {@link #KEEP_BUILDS} builds, or as soon as {@link #SAMPLES} changes, the history is compacted: the tests
+ * that did not run in the last {@link #KEEP_BUILDS} builds are dropped and the slots are rewritten with the configured
+ * number of durations. The index is derived from the keys, it is rebuilt whenever it does not match them.
+ */
+public final class DurationHistory {
+
+    /**
+     * How many of the last durations of every test are kept, an existing history is converted at the next update.
+     */
+    static final int SAMPLES = SystemProperties.getInteger(DurationHistory.class.getName() + ".samples", 20);
+
+    /**
+     * How many builds a test may not run in before its durations are dropped, the history is compacted once every
+     * that many builds.
+     */
+    static final int KEEP_BUILDS = SystemProperties.getInteger(DurationHistory.class.getName() + ".keepBuilds", 100);
+
+    private static final int KEYS_MAGIC = 0x44555253;
+
+    private static final int SAMPLES_MAGIC = 0x44555244;
+
+    private static final int INDEX_MAGIC = 0x44555249;
+
+    private static final int VERSION = 2;
+
+    /* magic, version and generation, the generation of all the files changes with every compaction */
+    private static final int KEYS_HEADER_LENGTH = 12;
+
+    /* magic, version, generation, number of durations kept per test and number of the build last compacted in */
+    private static final int SAMPLES_HEADER_LENGTH = 20;
+
+    /* magic, version, generation, number of buckets, number of keys and length of the keys file indexed */
+    private static final int INDEX_HEADER_LENGTH = 28;
+
+    /* last build number and number of recorded durations, ahead of the durations of a slot */
+    private static final int SLOT_HEADER_LENGTH = 8;
+
+    /* hash of the key, slot and position of the key in the keys file, no key is at position 0 of the keys file */
+    private static final int BUCKET_LENGTH = 16;
+
+    private static final int MIN_BUCKETS = 256;
+
+    /* how many buckets a probe reads at once */
+    private static final int PROBE_BUCKETS = 8;
+
+    /* slots this close to each other are read and written as one run */
+    private static final int MAX_SLOT_GAP = 8;
+
+    private DurationHistory() {
+    }
+
+    /**
+     * @param job the job
+     * @param reportDirectory the name of the folder the reports are written to in every build
+     * @return the file of the test identities
+     */
+    public static File keysFile(Job<?, ?> job, String reportDirectory) {
+        return new File(job.getRootDir(), reportDirectory + "-durations.keys");
+    }
+
+    /**
+     * @param job the job
+     * @param reportDirectory the name of the folder the reports are written to in every build
+     * @return the file of the test durations
+     */
+    public static File samplesFile(Job<?, ?> job, String reportDirectory) {
+        return new File(job.getRootDir(), reportDirectory + "-durations.bin");
+    }
+
+    /**
+     * @param job the job
+     * @param reportDirectory the name of the folder the reports are written to in every build
+     * @return the file of the slots of the test identities
+     */
+    public static File indexFile(Job<?, ?> job, String reportDirectory) {
+        return new File(job.getRootDir(), reportDirectory + "-durations.idx");
+    }
+
+    /**
+     * Adds the durations of the tests of a build to the history of its job. A failure is only logged, the history is
+     * not worth failing the build for.
+     *
+     * @param run the build
+     * @param reportDirectory the name of the folder the reports of the build are written to
+     * @param durations the duration of every test of the build, in milliseconds, by test identity
+     * @param listener the build listener
+     */
+    public static void record(Run<?, ?> run, String reportDirectory, Map<String, Long> durations,
+        TaskListener listener) {
+        Job<?, ?> job = run.getParent();
+        try {
+            update(keysFile(job, reportDirectory), samplesFile(job, reportDirectory), indexFile(job, reportDirectory),
+                run.getNumber(), durations, SAMPLES, KEEP_BUILDS);
+        } catch (IOException e) {
+            listener.getLogger().println("Could not record the test durations of the reports: " + e);
+        }
+    }
+
+    /**
+     * @param keysFile the file of the test identities, created if it does not exist
+     * @param samplesFile the file of the test durations, created if it does not exist
+     * @param indexFile the file of the slots of the test identities, created or rebuilt if it does not match the keys
+     * @param build the number of the build
+     * @param durations the duration of every test of the build, in milliseconds, by test identity
+     * @param samples how many of the last durations of every test to keep
+     * @param keepBuilds how many builds a test may not run in before its durations are dropped
+     * @throws IOException if the history cannot be written or is not a duration history
+     */
+    static void update(File keysFile, File samplesFile, File indexFile, int build, Map<String, Long> durations,
+        int samples, int keepBuilds) throws IOException {
+        int perTest = Math.max(1, samples);
+        int keep = Math.max(1, keepBuilds);
+        // the builds of a job may run concurrently, the updates of its history are serialized
+        synchronized (FileLocks.of(samplesFile)) {
+            File keysCompacted = new File(keysFile.getPath() + ".tmp");
+            File samplesCompacted = new File(samplesFile.getPath() + ".tmp");
+            boolean compacted;
+            try (Store store = Store.open(keysFile, samplesFile, indexFile, build, perTest)) {
+                compacted = store.compactTo(keysCompacted, samplesCompacted, build, perTest, keep);
+            }
+            if (compacted) {
+                // the files are only replaced once closed, a crash in between leaves two generations that are reset
+                Files.move(samplesCompacted.toPath(), samplesFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+                Files.move(keysCompacted.toPath(), keysFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            }
+            try (Store store = Store.open(keysFile, samplesFile, indexFile, build, perTest)) {
+                store.record(build, durations);
+            }
+        }
+    }
+
+    /**
+     * @param keysFile the file of the test identities
+     * @param samplesFile the file of the test durations
+     * @return the durations of every test, in the order the tests were first seen, empty if the files do not exist
+     * @throws IOException if the history cannot be read or is not a duration history
+     */
+    static List<Test> read(File keysFile, File samplesFile) throws IOException {
+        List<Test> tests = new ArrayList<>();
+        synchronized (FileLocks.of(samplesFile)) {
+            if (!keysFile.isFile() || !samplesFile.isFile()) {
+                return tests;
+            }
+            try (FileChannel keys = FileChannel.open(keysFile.toPath(), StandardOpenOption.READ);
+                FileChannel samples = FileChannel.open(samplesFile.toPath(), StandardOpenOption.READ)) {
+                if (keys.size() < KEYS_HEADER_LENGTH || samples.size() < SAMPLES_HEADER_LENGTH) {
+                    return tests;
+                }
+                ByteBuffer keysContent = readAt(keys, 0, (int) keys.size());
+                ByteBuffer samplesHeader = readAt(samples, 0, SAMPLES_HEADER_LENGTH);
+                checkHeaders(keysContent, samplesHeader, samplesFile);
+                int generation = samplesHeader.getInt();
+                int perTest = samplesHeader.getInt();
+                if (keysContent.getInt() != generation) {
+                    // a compaction did not complete, the next update starts a new history
+                    return tests;
+                }
+                long[] offsets = keyOffsets(keysContent);
+                int slotLength = SLOT_HEADER_LENGTH + 4 * perTest;
+                int slots = (int) Math.min(offsets.length - 1, (samples.size() - SAMPLES_HEADER_LENGTH) / slotLength);
+                ByteBuffer content = readAt(samples, SAMPLES_HEADER_LENGTH, slots * slotLength);
+                for (int slot = 0; slot < slots; slot++) {
+                    int lastBuild = content.getInt();
+                    int count = content.getInt();
+                    int[] ring = new int[perTest];
+                    content.asIntBuffer().get(ring);
+                    content.position(content.position() + 4 * perTest);
+                    if (count > 0) {
+                        int start = (int) offsets[slot] + 4;
+                        String name = new String(keysContent.array(), start, (int) offsets[slot + 1] - start,
+                            StandardCharsets.UTF_8);
+                        tests.add(new Test(name, lastBuild, count, ring));
+                    }
+                }
+            }
+        }
+        return tests;
+    }
+
+    private static void checkHeaders(ByteBuffer keysHeader, ByteBuffer samplesHeader, File file) throws IOException {
+        if (keysHeader.getInt() != KEYS_MAGIC || keysHeader.getInt() != VERSION
+            || samplesHeader.getInt() != SAMPLES_MAGIC || samplesHeader.getInt() != VERSION) {
+            throw new IOException(file + " is not a duration history");
+        }
+    }
+
+    /**
+     * @param content the whole keys file
+     * @return the positions of the complete keys, followed by the end of the last one, a key cut short by a crash is
+     * left out
+     */
+    private static long[] keyOffsets(ByteBuffer content) {
+        long[] offsets = new long[16];
+        int keys = 0;
+        int position = KEYS_HEADER_LENGTH;
+        offsets[0] = position;
+        while (content.limit() - position >= 4) {
+            int length = content.getInt(position);
+            if (length < 0 || length > content.limit() - position - 4) {
+                break;
+            }
+            position += 4 + length;
+            if (++keys == offsets.length) {
+                offsets = Arrays.copyOf(offsets, keys * 2);
+            }
+            offsets[keys] = position;
+        }
+        return Arrays.copyOf(offsets, keys + 1);
+    }
+
+    /* FNV-1a of the UTF-8 bytes of a key */
+    private static int hash(byte[] bytes, int from, int to) {
+        int hash = 0x811c9dc5;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ (bytes[i] & 0xff)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    private static ByteBuffer putKey(ByteBuffer buffer, byte[] key) {
+        if (buffer.remaining() < 4 + key.length) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + 4 + key.length));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+        return buffer.putInt(key.length).put(key);
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(channel, buffer, position);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of the duration history");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * The open history files of a job, only used while holding the lock of the samples file.
+     */
+    private static final class Store implements Closeable {
+
+        private final FileChannel keys;
+
+        private final FileChannel samples;
+
+        private final FileChannel index;
+
+        private final File samplesFile;
+
+        private int generation;
+
+        private int perTest;
+
+        private int compactedBuild;
+
+        private int buckets;
+
+        private int count;
+
+        private long keysLength;
+
+        private Store(FileChannel keys, FileChannel samples, FileChannel index, File samplesFile) {
+            this.keys = keys;
+            this.samples = samples;
+            this.index = index;
+            this.samplesFile = samplesFile;
+        }
+
+        static Store open(File keysFile, File samplesFile, File indexFile, int build, int perTest)
+            throws IOException {
+            List<FileChannel> channels = new ArrayList<>();
+            try {
+                for (File file : Arrays.asList(keysFile, samplesFile, indexFile)) {
+                    channels.add(FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE));
+                }
+                Store store = new Store(channels.get(0), channels.get(1), channels.get(2), samplesFile);
+                store.load(build, perTest);
+                return store;
+            } catch (IOException | RuntimeException e) {
+                for (FileChannel channel : channels) {
+                    channel.close();
+                }
+                throw e;
+            }
+        }
+
+        private void load(int build, int newPerTest) throws IOException {
+            if (keys.size() < KEYS_HEADER_LENGTH || samples.size() < SAMPLES_HEADER_LENGTH) {
+                reset(0, build, newPerTest);
+            } else {
+                ByteBuffer keysHeader = readAt(keys, 0, KEYS_HEADER_LENGTH);
+                ByteBuffer samplesHeader = readAt(samples, 0, SAMPLES_HEADER_LENGTH);
+                checkHeaders(keysHeader, samplesHeader, samplesFile);
+                int keysGeneration = keysHeader.getInt();
+                generation = samplesHeader.getInt();
+                perTest = samplesHeader.getInt();
+                compactedBuild = samplesHeader.getInt();
+                if (perTest < 1) {
+                    throw new IOException(samplesFile + " is not a duration history");
+                }
+                if (keysGeneration != generation) {
+                    // a crash in the middle of a compaction, the keys no longer match the slots
+                    reset(Math.max(keysGeneration, generation) + 1, build, newPerTest);
+                }
+            }
+            if (index.size() >= INDEX_HEADER_LENGTH) {
+                ByteBuffer header = readAt(index, 0, INDEX_HEADER_LENGTH);
+                if (header.getInt() == INDEX_MAGIC && header.getInt() == VERSION && header.getInt() == generation) {
+                    buckets = header.getInt();
+                    count = header.getInt();
+                    keysLength = header.getLong();
+                    if (keysLength == keys.size() && buckets >= MIN_BUCKETS && Integer.bitCount(buckets) == 1
+                        && index.size() == INDEX_HEADER_LENGTH + (long) buckets * BUCKET_LENGTH) {
+                        return;
+                    }
+                }
+            }
+            // the index is missing, of an other generation or was not completed by the last update
+            rebuildIndex();
+        }
+
+        private void reset(int newGeneration, int build, int newPerTest) throws IOException {
+            generation = newGeneration;
+            perTest = newPerTest;
+            compactedBuild = build;
+            samples.truncate(0);
+            keys.truncate(0);
+            index.truncate(0);
+            ByteBuffer samplesHeader = ByteBuffer.allocate(SAMPLES_HEADER_LENGTH);
+            samplesHeader.putInt(SAMPLES_MAGIC).putInt(VERSION).putInt(generation).putInt(perTest)
+                .putInt(compactedBuild).flip();
+            writeFully(samples, samplesHeader, 0);
+            ByteBuffer keysHeader = ByteBuffer.allocate(KEYS_HEADER_LENGTH);
+            keysHeader.putInt(KEYS_MAGIC).putInt(VERSION).putInt(generation).flip();
+            writeFully(keys, keysHeader, 0);
+        }
+
+        private void rebuildIndex() throws IOException {
+            ByteBuffer content = readAt(keys, 0, (int) keys.size());
+            long[] offsets = keyOffsets(content);
+            int keyCount = offsets.length - 1;
+            int[] hashes = new int[keyCount];
+            int[] slots = new int[keyCount];
+            for (int slot = 0; slot < keyCount; slot++) {
+                hashes[slot] = hash(content.array(), (int) offsets[slot] + 4, (int) offsets[slot + 1]);
+                slots[slot] = slot;
+            }
+            // a key cut short by a crash is dropped, its slot is written again for the next new key
+            keysLength = offsets[keyCount];
+            keys.truncate(keysLength);
+            writeIndex(hashes, slots, offsets, keyCount);
+        }
+
+        private void writeIndex(int[] hashes, int[] slots, long[] offsets, int keyCount) throws IOException {
+            buckets = MIN_BUCKETS;
+            while (buckets < 2L * keyCount) {
+                buckets <<= 1;
+            }
+            count = keyCount;
+            ByteBuffer table = ByteBuffer.allocate(INDEX_HEADER_LENGTH + buckets * BUCKET_LENGTH);
+            for (int i = 0; i < keyCount; i++) {
+                int bucket = home(hashes[i]);
+                while (table.getLong(bucketPosition(bucket) + 8) != 0) {
+                    bucket = (bucket + 1) & (buckets - 1);
+                }
+                table.putInt(bucketPosition(bucket), hashes[i]).putInt(bucketPosition(bucket) + 4, slots[i])
+                    .putLong(bucketPosition(bucket) + 8, offsets[i]);
+            }
+            // the header is written last, an index cut short by a crash does not match the keys
+            table.putInt(0, INDEX_MAGIC).putInt(4, VERSION).putInt(8, generation).putLong(20, -1);
+            writeFully(index, table, 0);
+            index.truncate(table.capacity());
+            writeIndexHeader();
+        }
+
+        private void writeIndexHeader() throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_LENGTH);
+            header.putInt(INDEX_MAGIC).putInt(VERSION).putInt(generation).putInt(buckets).putInt(count)
+                .putLong(keysLength).flip();
+            writeFully(index, header, 0);
+        }
+
+        private int home(int hash) {
+            return (hash ^ (hash >>> 16)) & (buckets - 1);
+        }
+
+        private static int bucketPosition(int bucket) {
+            return INDEX_HEADER_LENGTH + bucket * BUCKET_LENGTH;
+        }
+
+        /**
+         * @return the slot of the key, -1 if the key is not in the history
+         */
+        private int lookup(byte[] key, int hash) throws IOException {
+            ByteBuffer window = ByteBuffer.allocate(PROBE_BUCKETS * BUCKET_LENGTH);
+            int bucket = home(hash);
+            int probed = 0;
+            while (probed < buckets) {
+                int read = Math.min(PROBE_BUCKETS, buckets - bucket);
+                window.clear().limit(read * BUCKET_LENGTH);
+                readFully(index, window, bucketPosition(bucket));
+                window.flip();
+                for (int i = 0; i < read; i++) {
+                    int bucketHash = window.getInt();
+                    int slot = window.getInt();
+                    long offset = window.getLong();
+                    if (offset == 0) {
+                        return -1;
+                    }
+                    if (bucketHash == hash && isKeyAt(offset, key)) {
+                        return slot;
+                    }
+                }
+                probed += read;
+                bucket = (bucket + read) & (buckets - 1);
+            }
+            return -1;
+        }
+
+        private boolean isKeyAt(long offset, byte[] key) throws IOException {
+            if (offset + 4 + key.length > keysLength) {
+                return false;
+            }
+            ByteBuffer stored = readAt(keys, offset, 4 + key.length);
+            if (stored.getInt() != key.length) {
+                return false;
+            }
+            for (byte b : key) {
+                if (stored.get() != b) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void insert(int hash, int slot, long offset) throws IOException {
+            ByteBuffer bucketContent = ByteBuffer.allocate(BUCKET_LENGTH);
+            int bucket = home(hash);
+            while (true) {
+                bucketContent.clear();
+                readFully(index, bucketContent, bucketPosition(bucket));
+                if (bucketContent.getLong(8) == 0) {
+                    break;
+                }
+                bucket = (bucket + 1) & (buckets - 1);
+            }
+            bucketContent.clear();
+            bucketContent.putInt(hash).putInt(slot).putLong(offset).flip();
+            writeFully(index, bucketContent, bucketPosition(bucket));
+        }
+
+        /**
+         * Grows the index by rehashing its buckets, the keys are not read again.
+         */
+        private void growIndex(int[] newHashes, long[] newOffsets, int added) throws IOException {
+            ByteBuffer table = readAt(index, INDEX_HEADER_LENGTH, buckets * BUCKET_LENGTH);
+            int total = count + added;
+            int[] hashes = new int[total];
+            int[] slots = new int[total];
+            long[] offsets = new long[total];
+            int i = 0;
+            while (table.hasRemaining()) {
+                int hash = table.getInt();
+                int slot = table.getInt();
+                long offset = table.getLong();
+                if (offset != 0) {
+                    hashes[i] = hash;
+                    slots[i] = slot;
+                    offsets[i++] = offset;
+                }
+            }
+            for (int j = 0; j < added; j++, i++) {
+                hashes[i] = newHashes[j];
+                slots[i] = count + j;
+                offsets[i] = newOffsets[j];
+            }
+            writeIndex(hashes, slots, offsets, i);
+        }
+
+        void record(int build, Map<String, Long> durations) throws IOException {
+            int slotLength = SLOT_HEADER_LENGTH + 4 * perTest;
+            long[] updates = new long[durations.size()];
+            int[] newHashes = new int[durations.size()];
+            long[] newOffsets = new long[durations.size()];
+            ByteBuffer newKeys = ByteBuffer.allocate(256);
+            int added = 0;
+            int u = 0;
+            for (Map.Entry<String, Long> duration : durations.entrySet()) {
+                byte[] key = duration.getKey().getBytes(StandardCharsets.UTF_8);
+                int hash = hash(key, 0, key.length);
+                int slot = lookup(key, hash);
+                if (slot < 0) {
+                    slot = count + added;
+                    newHashes[added] = hash;
+                    newOffsets[added++] = keysLength + newKeys.position();
+                    newKeys = putKey(newKeys, key);
+                }
+                int millis = (int) Math.min(Integer.MAX_VALUE, Math.max(0, duration.getValue()));
+                updates[u++] = (long) slot << 32 | millis;
+            }
+            Arrays.sort(updates);
+
+            // the slots are written in runs of close slots, each run is read and written once
+            for (int start = 0, end; start < updates.length; start = end) {
+                end = start + 1;
+                while (end < updates.length && (updates[end] >>> 32) - (updates[end - 1] >>> 32) <= MAX_SLOT_GAP) {
+                    end++;
+                }
+                int first = (int) (updates[start] >>> 32);
+                int last = (int) (updates[end - 1] >>> 32);
+                long position = SAMPLES_HEADER_LENGTH + (long) first * slotLength;
+                ByteBuffer run = ByteBuffer.allocate((last - first + 1) * slotLength);
+                int known = Math.min(last + 1, count) - first;
+                if (known > 0) {
+                    // the slots of new keys start empty, whatever a crash left past the last key is overwritten
+                    run.limit(known * slotLength);
+                    readFully(samples, run, position);
+                    run.clear();
+                }
+                for (int i = start; i < end; i++) {
+                    int at = ((int) (updates[i] >>> 32) - first) * slotLength;
+                    int lastBuild = run.getInt(at);
+                    int recorded = run.getInt(at + 4);
+                    // a build publishing the same kind of reports twice keeps its last durations
+                    if (lastBuild != build || recorded == 0) {
+                        recorded++;
+                    }
+                    run.putInt(at, Math.max(lastBuild, build)).putInt(at + 4, recorded);
+                    run.putInt(at + SLOT_HEADER_LENGTH + 4 * ((recorded - 1) % perTest), (int) updates[i]);
+                }
+                writeFully(samples, run, position);
+            }
+            if (added == 0) {
+                return;
+            }
+
+            // the keys go after their slots, a key is only readable once its slot is written
+            newKeys.flip();
+            writeFully(keys, newKeys, keysLength);
+            keysLength += newKeys.limit();
+            if (4L * (count + added) > 3L * buckets || added > buckets / 8) {
+                growIndex(newHashes, newOffsets, added);
+                return;
+            }
+            for (int i = 0; i < added; i++) {
+                insert(newHashes[i], count + i, newOffsets[i]);
+            }
+            count += added;
+            // the header goes last, an index cut short by a crash does not match the length of the keys
+            writeIndexHeader();
+        }
+
+        /**
+         * Writes the compacted history to the given files when a compaction is due.
+         *
+         * @return whether the history was compacted
+         */
+        boolean compactTo(File keysFile, File samplesFile, int build, int newPerTest, int keepBuilds)
+            throws IOException {
+            if (perTest == newPerTest && build - compactedBuild < keepBuilds) {
+                return false;
+            }
+            int slotLength = SLOT_HEADER_LENGTH + 4 * perTest;
+            int newSlotLength = SLOT_HEADER_LENGTH + 4 * newPerTest;
+            ByteBuffer keysContent = readAt(keys, 0, (int) keysLength);
+            long[] offsets = keyOffsets(keysContent);
+            ByteBuffer slots = readAt(samples, SAMPLES_HEADER_LENGTH, count * slotLength);
+            ByteBuffer keptKeys = ByteBuffer.allocate((int) keysLength);
+            keptKeys.putInt(KEYS_MAGIC).putInt(VERSION).putInt(generation + 1);
+            ByteBuffer keptSlots = ByteBuffer.allocate(SAMPLES_HEADER_LENGTH + count * newSlotLength);
+            keptSlots.putInt(SAMPLES_MAGIC).putInt(VERSION).putInt(generation + 1).putInt(newPerTest).putInt(build);
+            for (int slot = 0; slot < count; slot++) {
+                int at = slot * slotLength;
+                int lastBuild = slots.getInt(at);
+                int recorded = slots.getInt(at + 4);
+                if (recorded == 0 || lastBuild <= build - keepBuilds) {
+                    continue;
+                }
+                keptKeys.put(keysContent.array(), (int) offsets[slot], (int) (offsets[slot + 1] - offsets[slot]));
+                // the last durations are kept oldest first, so the last one ends the ring
+                int kept = Math.min(Math.min(recorded, perTest), newPerTest);
+                keptSlots.putInt(lastBuild).putInt(kept);
+                for (int age = kept - 1; age >= 0; age--) {
+                    keptSlots.putInt(slots.getInt(at + SLOT_HEADER_LENGTH + 4 * ((recorded - 1 - age) % perTest)));
+                }
+                keptSlots.position(keptSlots.position() + 4 * (newPerTest - kept));
+            }
+            write(keysFile, keptKeys);
+            write(samplesFile, keptSlots);
+            return true;
+        }
+
+        private static void write(File file, ByteBuffer content) throws IOException {
+            content.flip();
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeFully(channel, content, 0);
+                channel.force(true);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                keys.close();
+            } finally {
+                try {
+                    samples.close();
+                } finally {
+                    index.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * The last durations of one test.
+     */
+    public static final class Test {
+
+        private final String name;
+
+        private final int lastBuild;
+
+        private final int runs;
+
+        private final long lastMillis;
+
+        private final long medianMillis;
+
+        private final long p95Millis;
+
+        private final long baselineMillis;
+
+        Test(String name, int lastBuild, int count, int[] ring) {
+            this.name = name;
+            this.lastBuild = lastBuild;
+            this.runs = Math.min(count, ring.length);
+            int latest = (count - 1) % ring.length;
+            this.lastMillis = ring[latest];
+            int[] sorted = new int[runs];
+            int[] earlier = new int[runs - 1];
+            for (int i = 0, e = 0; i < runs; i++) {
+                int index = (latest - i + ring.length) % ring.length;
+                sorted[i] = ring[index];
+                if (i > 0) {
+                    earlier[e++] = ring[index];
+                }
+            }
+            Arrays.sort(sorted);
+            Arrays.sort(earlier);
+            this.medianMillis = percentile(sorted, 50);
+            this.p95Millis = percentile(sorted, 95);
+            this.baselineMillis = earlier.length == 0 ? lastMillis : percentile(earlier, 50);
+        }
+
+        /* nearest rank */
+        private static long percentile(int[] sorted, int percent) {
+            int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getLastBuild() {
+            return lastBuild;
+        }
+
+        /**
+         * @return how many durations the percentiles are computed from
+         */
+        public int getRuns() {
+            return runs;
+        }
+
+        public long getLastMillis() {
+            return lastMillis;
+        }
+
+        public long getMedianMillis() {
+            return medianMillis;
+        }
+
+        public long getP95Millis() {
+            return p95Millis;
+        }
+
+        /**
+         * @return the median of the durations before the last one, the last one if there is no other
+         */
+        public long getBaselineMillis() {
+            return baselineMillis;
+        }
+
+        public long getIncreaseMillis() {
+            return lastMillis - baselineMillis;
+        }
+
+        public String getLastString() {
+            return Util.getTimeSpanString(lastMillis);
+        }
+
+        public String getMedianString() {
+            return Util.getTimeSpanString(medianMillis);
+        }
+
+        public String getP95String() {
+            return Util.getTimeSpanString(p95Millis);
+        }
+
+        public String getBaselineString() {
+            return Util.getTimeSpanString(baselineMillis);
+        }
+
+        public String getIncreaseString() {
+            return Util.getTimeSpanString(getIncreaseMillis());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.bogdanlivadariu.jenkins.reporting;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One monitor per file written by the publishers next to the job config. The builds of a job may run concurrently
+ * and update the same files, the builds of other jobs never wait for them.
+ */
+final class FileLocks {
+
+    private static final ConcurrentMap<Path, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private FileLocks() {
+    }
+
+    /**
+     * @param file the file about to be updated
+     * @return the monitor to hold while the file is updated, the same for every path of the file
+     */
+    static Object of(File file) {
+        return LOCKS.computeIfAbsent(file.toPath().toAbsolutePath().normalize(), path -> new Object());
+    }
+}
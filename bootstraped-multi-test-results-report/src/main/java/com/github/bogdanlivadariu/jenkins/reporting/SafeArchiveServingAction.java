@@ -2,20 +2,45 @@ package com.github.bogdanlivadariu.jenkins.reporting;
 
 import hudson.Util;
 import hudson.model.Action;
+import hudson.model.TaskListener;
+import hudson.util.DaemonThreadFactory;
 import hudson.util.HttpResponses;
+import hudson.util.NamingThreadFactory;
+import jenkins.util.SystemProperties;
 import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.StaplerResponse;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -23,6 +48,46 @@ public class SafeArchiveServingAction implements Action {
 
     private static final Logger LOGGER = Logger.getLogger(SafeArchiveServingAction.class.getName());
 
+    /**
+     * Size of the read buffer of the original checksum loop, the recorded checksums depend on it.
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    /**
+     * Files up to this size are read once into the heap to be verified and served, larger ones are read twice.
+     */
+    private static final int IN_MEMORY_LIMIT = 1024 * CHUNK_SIZE;
+
+    /**
+     * Size of the direct buffers the files of a report directory are read through while it is scanned.
+     */
+    private static final int SCAN_BUFFER_SIZE = 1024 * CHUNK_SIZE;
+
+    /**
+     * How many threads hash the files of a report directory once the build is done.
+     */
+    private static final int SCAN_THREADS = Math.max(1, SystemProperties.getInteger(
+        SafeArchiveServingAction.class.getName() + ".scanThreads",
+        Math.min(4, Runtime.getRuntime().availableProcessors())));
+
+    /**
+     * How many verified files are remembered across all the report actions of the controller.
+     */
+    private static final int VERIFIED_CACHE_SIZE =
+        SystemProperties.getInteger(SafeArchiveServingAction.class.getName() + ".verifiedCacheSize", 1024);
+
+    /**
+     * Files whose checksum matched the recorded one, by absolute path. An entry is only trusted while the file keeps
+     * the same size, modification time and file key, so a changed file is always hashed again.
+     */
+    private static final Map<String, VerifiedFile> VERIFIED_FILES =
+        Collections.synchronizedMap(new LinkedHashMap<String, VerifiedFile>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedFile> eldest) {
+                return size() > VERIFIED_CACHE_SIZE;
+            }
+        });
+
     private final File rootDir;
 
     private final String urlName;
@@ -35,7 +100,25 @@ public class SafeArchiveServingAction implements Action {
 
     private final List<String> safeExtensions;
 
-    private Map<String, String> fileChecksums = new HashMap<>();
+    /**
+     * Checksums recorded in build.xml by earlier versions, null for builds whose checksums are in the manifest.
+     */
+    @Deprecated
+    private Map<String, String> fileChecksums;
+
+    /**
+     * The checksum manifest of the report directory, read on the first request for a file that needs one.
+     */
+    private transient volatile ChecksumManifest manifest;
+
+    /**
+     * Statistics of the last scan of this JVM, they are printed to the build log and not persisted with the build.
+     */
+    private transient long scanDurationMillis;
+
+    private transient int scannedFiles;
+
+    private transient long scannedBytes;
 
     public SafeArchiveServingAction(File rootDir, String urlName, String indexFile, String iconName, String title,
         String... safeExtensions) {
@@ -47,63 +130,212 @@ public class SafeArchiveServingAction implements Action {
         this.safeExtensions = Collections.unmodifiableList(Arrays.asList(safeExtensions));
     }
 
-    private void addFile(String relativePath, String checksum) {
-        this.fileChecksums.put(relativePath, checksum);
+    /**
+     * @param file the path relative to the report directory
+     * @return the checksum recorded for the file, null if there is none
+     * @throws IOException if the checksum manifest cannot be read
+     */
+    @CheckForNull
+    private String getChecksum(String file) throws IOException {
+        if (fileChecksums != null) {
+            return fileChecksums.get(file);
+        }
+        ChecksumManifest checksums = manifest;
+        if (checksums == null) {
+            synchronized (this) {
+                checksums = manifest;
+                if (checksums == null) {
+                    checksums = ChecksumManifest.read(getManifestFile());
+                    if (checksums == null) {
+                        return null;
+                    }
+                    manifest = checksums;
+                }
+            }
+        }
+        return checksums.get(file);
     }
 
-    private String getChecksum(String file) {
-        if (file == null || !fileChecksums.containsKey(file)) {
-            throw new IllegalArgumentException(file + " has no checksum recorded");
-        }
-        return fileChecksums.get(file);
+    /**
+     * @return the checksum manifest of the report directory, kept next to it in the build folder rather than inside
+     * it, so whoever can change the served files cannot rewrite their checksums along with them
+     */
+    private File getManifestFile() {
+        File reportDir = getRootDir();
+        return new File(reportDir.getParentFile(), reportDir.getName() + "-" + ChecksumManifest.FILE_NAME);
     }
 
-    private String calculateChecksum(@Nonnull File file) throws NoSuchAlgorithmException, IOException {
+    /**
+     * Same digest as the original 1 KB read loop, which hashed its whole read buffer after every read. Whole chunks are
+     * therefore digested as they are and a short last chunk is padded with the bytes the previous chunk left in the
+     * buffer, or zeros for files shorter than a chunk.
+     *
+     * @param buffer the buffer the file is read through, its size must be a multiple of the chunk size
+     */
+    private static String calculateChecksum(@Nonnull File file, @Nonnull ByteBuffer buffer)
+        throws NoSuchAlgorithmException, IOException {
         MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
-        try (FileInputStream fis = new FileInputStream(file)) {
-            byte[] bytes = new byte[1024];
-            while (-1 != (fis.read(bytes))) {
-                sha1.update(bytes);
+        byte[] chunk = new byte[CHUNK_SIZE];
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer.clear();
+            while (channel.read(buffer) != -1) {
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    digestChunks(sha1, buffer, chunk);
+                    buffer.clear();
+                }
             }
+            buffer.flip();
+            digestChunks(sha1, buffer, chunk);
         }
         return Util.toHexString(sha1.digest());
     }
 
-    private void processDirectory(@Nonnull File directory, @Nullable String path)
-        throws NoSuchAlgorithmException, IOException {
-        if (LOGGER.isLoggable(Level.FINER)) {
-            LOGGER.log(Level.FINER, "Scanning " + getRootDir());
-        }
-        File[] files = directory.listFiles();
-        if (files == null) {
-            throw new IllegalArgumentException(directory + " listing returned null");
-        }
-        for (File file : files) {
-
-            String relativePath = file.getName();
-            if (path != null) {
-                relativePath = path + "/" + relativePath;
-            }
+    /**
+     * Same digest as {@link #calculateChecksum(File, ByteBuffer)}, computed from content that is already in memory.
+     */
+    private static String calculateChecksum(@Nonnull ByteBuffer content) throws NoSuchAlgorithmException {
+        MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+        digestChunks(sha1, content.duplicate(), new byte[CHUNK_SIZE]);
+        return Util.toHexString(sha1.digest());
+    }
 
-            if (file.isDirectory()) {
-                processDirectory(file, relativePath);
-            }
-            if (file.isFile() && !isSafeFileType(file.getName())) {
-                addFile(relativePath, calculateChecksum(file));
-            }
+    /**
+     * @param chunk holds what the legacy read buffer contains, it is updated with the last whole chunk of the buffer
+     */
+    private static void digestChunks(MessageDigest sha1, ByteBuffer buffer, byte[] chunk) {
+        int tail = buffer.remaining() % CHUNK_SIZE;
+        int end = buffer.limit();
+        int wholeChunksEnd = end - tail;
+        if (wholeChunksEnd > buffer.position()) {
+            int start = buffer.position();
+            buffer.position(wholeChunksEnd - CHUNK_SIZE);
+            buffer.get(chunk);
+            buffer.limit(wholeChunksEnd).position(start);
+            sha1.update(buffer);
+            buffer.limit(end);
+        }
+        if (tail > 0) {
+            buffer.get(chunk, 0, tail);
+            sha1.update(chunk);
         }
     }
 
     /**
      * Record the checksums of files in the specified directory and its descendants unless a file type is whitelisted as
-     * safe.
+     * safe. The tree is walked on the calling thread while the files are hashed by a bounded pool of workers, the
+     * checksums are then written to the manifest next to the directory rather than kept in build.xml.
      *
      * @throws NoSuchAlgorithmException If the platform does unexpectedly not support SHA-1
      * @throws IOException
      */
     public void processDirectory() throws NoSuchAlgorithmException, IOException {
         LOGGER.log(Level.FINE, "Scanning " + getRootDir());
-        processDirectory(getRootDir(), null);
+        long started = System.nanoTime();
+        Path root = getRootDir().toPath();
+        Map<String, String> checksums = new ConcurrentHashMap<>();
+        AtomicLong bytes = new AtomicLong();
+        List<Future<?>> hashed = new ArrayList<>();
+        // a buffer per hashing thread at most, the walking thread included, released with the scan
+        Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+        // a full queue makes the walking thread hash files itself, which keeps the number of queued tasks bounded
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(SCAN_THREADS, SCAN_THREADS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(SCAN_THREADS * 64),
+            new NamingThreadFactory(new DaemonThreadFactory(), SafeArchiveServingAction.class.getSimpleName()),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                        if (attributes.isRegularFile() && !isSafeFileType(file.getFileName().toString())) {
+                            String relativePath = root.relativize(file).toString().replace(File.separatorChar, '/');
+                            hashed.add(executor.submit(() -> {
+                                ByteBuffer buffer = buffers.poll();
+                                if (buffer == null) {
+                                    buffer = ByteBuffer.allocateDirect(SCAN_BUFFER_SIZE);
+                                }
+                                try {
+                                    checksums.put(relativePath, calculateChecksum(file.toFile(), buffer));
+                                } finally {
+                                    buffers.add(buffer);
+                                }
+                                bytes.addAndGet(attributes.size());
+                                return null;
+                            }));
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                        if (exc instanceof FileSystemLoopException) {
+                            LOGGER.log(Level.FINE, "Skipping symbolic link loop " + file);
+                            return FileVisitResult.CONTINUE;
+                        }
+                        throw exc;
+                    }
+                });
+            for (Future<?> future : hashed) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while scanning " + getRootDir());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof NoSuchAlgorithmException) {
+                throw (NoSuchAlgorithmException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ChecksumManifest.write(getManifestFile(), checksums);
+        fileChecksums = null;
+        manifest = null;
+        scanDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        scannedFiles = checksums.size();
+        scannedBytes = bytes.get();
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Scanned " + getRootDir() + ": " + scannedFiles + " files, " + scannedBytes
+                + " bytes hashed in " + scanDurationMillis + " ms");
+        }
+    }
+
+    /**
+     * @return how long the last checksum scan of the report directory took, in milliseconds, 0 once the build
+     * was reloaded
+     */
+    public long getScanDurationMillis() {
+        return scanDurationMillis;
+    }
+
+    /**
+     * @return how many files the last checksum scan of the report directory hashed, 0 once the build was reloaded
+     */
+    public int getScannedFiles() {
+        return scannedFiles;
+    }
+
+    /**
+     * @return how many bytes the last checksum scan of the report directory hashed, 0 once the build was reloaded
+     */
+    public long getScannedBytes() {
+        return scannedBytes;
+    }
+
+    /**
+     * Prints the statistics of the last checksum scan of the report directory to the build log.
+     */
+    public void printScanStatistics(TaskListener listener) {
+        listener.getLogger().println("Hashed " + scannedFiles + " report files, " + scannedBytes + " bytes, in "
+            + scanDurationMillis + " ms");
     }
 
     private boolean isSafeFileType(String filename) {
@@ -168,13 +400,15 @@ public class SafeArchiveServingAction implements Action {
                 LOGGER.log(Level.FINEST, "Serving safe file: " + fileName);
             }
 
-            serveFile(file, req, rsp);
+            BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            serveFile(file, attributes, weakETag(attributes), null, req, rsp);
             return;
         }
 
         // if we're here, we know it's not a safe file type based on name
 
-        if (!fileChecksums.containsKey(fileName)) {
+        String expectedChecksum = getChecksum(fileName);
+        if (expectedChecksum == null) {
             // file had no checksum recorded -- dangerous
             if (LOGGER.isLoggable(Level.FINEST)) {
                 LOGGER.log(Level.FINEST, "File exists but no checksum recorded: " + fileName);
@@ -195,36 +429,232 @@ public class SafeArchiveServingAction implements Action {
             throw HttpResponses.notFound();
         }
 
-        // calculate actual file checksum
-        String actualChecksum;
-        try {
-            actualChecksum = calculateChecksum(file);
-        } catch (NoSuchAlgorithmException nse) {
-            // cannot happen
-            throw new IllegalStateException(nse);
+        BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        VerifiedFile verified = VERIFIED_FILES.get(file.getAbsolutePath());
+        if (verified != null && verified.matches(attributes, expectedChecksum)) {
+            if (LOGGER.isLoggable(Level.FINEST)) {
+                LOGGER.log(Level.FINEST, "Serving already verified file: " + fileName);
+            }
+            serveFile(file, attributes, "\"" + expectedChecksum + "\"", null, req, rsp);
+            return;
         }
 
-        String expectedChecksum = getChecksum(fileName);
+        // the actual file checksum is calculated while serving, small files are read only once
+        serveFile(file, attributes, "\"" + expectedChecksum + "\"", expectedChecksum, req, rsp);
+    }
 
-        if (!expectedChecksum.equals(actualChecksum)) {
-            if (LOGGER.isLoggable(Level.FINEST)) {
-                LOGGER.log(Level.FINEST, "Checksum mismatch: recorded: " +
-                    expectedChecksum + ", actual: " + actualChecksum + " for file: " + fileName);
+    /**
+     * Serves the file without Content-Security-Policy, answering conditional requests with a 304 and single byte
+     * ranges with a 206. When a checksum is expected a file of up to {@link #IN_MEMORY_LIMIT} bytes is read once,
+     * hashed and served from the same heap buffer, a larger file is hashed through the streamed reader first. Any
+     * other content is copied from the file channel to the servlet output stream.
+     *
+     * @param expectedChecksum the checksum the file content must have, null if the file needs no verification
+     */
+    private void serveFile(File file, BasicFileAttributes attributes, String etag, @Nullable String expectedChecksum,
+        StaplerRequest req, StaplerResponse rsp) throws IOException {
+        if (isNotModified(req, etag, attributes)) {
+            // the client already holds the content with the recorded checksum, nothing is read
+            rsp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            rsp.setHeader("ETag", etag);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer content = null;
+            if (expectedChecksum != null) {
+                String actualChecksum;
+                try {
+                    if (size <= IN_MEMORY_LIMIT) {
+                        content = ByteBuffer.allocate((int) size);
+                        while (content.hasRemaining() && channel.read(content) != -1) {
+                            // read the whole file
+                        }
+                        content.flip();
+                        actualChecksum = calculateChecksum(content);
+                    } else {
+                        actualChecksum = calculateChecksum(file, ByteBuffer.allocate(64 * CHUNK_SIZE));
+                    }
+                } catch (NoSuchAlgorithmException nse) {
+                    // cannot happen
+                    throw new IllegalStateException(nse);
+                }
+                if (!expectedChecksum.equals(actualChecksum)) {
+                    if (LOGGER.isLoggable(Level.FINEST)) {
+                        LOGGER.log(Level.FINEST, "Checksum mismatch: recorded: " +
+                            expectedChecksum + ", actual: " + actualChecksum + " for file: " + file);
+                    }
+
+                    VERIFIED_FILES.remove(file.getAbsolutePath());
+                    throw HttpResponses.forbidden();
+                }
+                VERIFIED_FILES.put(file.getAbsolutePath(), new VerifiedFile(attributes, expectedChecksum));
+            }
+
+            long start = 0;
+            long end = size - 1;
+            long[] range = requestedRange(req, etag, attributes, size);
+            if (range != null) {
+                if (range.length == 0) {
+                    rsp.setHeader("Content-Range", "bytes */" + size);
+                    rsp.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = range[0];
+                end = range[1];
+                rsp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                rsp.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + size);
             }
 
-            throw HttpResponses.forbidden();
+            String contentType = req.getServletContext().getMimeType(file.getName());
+            if (contentType == null || file.getName().endsWith(".bin")) {
+                // unknown content, such as the attachments extracted from the reports, is downloaded, never rendered
+                rsp.setContentType("application/octet-stream");
+                rsp.setHeader("Content-Disposition", "attachment");
+            } else {
+                rsp.setContentType(contentType);
+            }
+            rsp.setHeader("X-Content-Type-Options", "nosniff");
+            rsp.setHeader("Accept-Ranges", "bytes");
+            rsp.setHeader("ETag", etag);
+            rsp.setDateHeader("Last-Modified", attributes.lastModifiedTime().toMillis());
+            rsp.setContentLengthLong(end - start + 1);
+            if ("HEAD".equals(req.getMethod())) {
+                return;
+            }
+
+            WritableByteChannel out = Channels.newChannel(rsp.getOutputStream());
+            if (content != null) {
+                ByteBuffer slice = content.duplicate();
+                slice.limit((int) end + 1).position((int) start);
+                while (slice.hasRemaining()) {
+                    out.write(slice);
+                }
+            } else {
+                long position = start;
+                while (position <= end) {
+                    position += channel.transferTo(position, end - position + 1, out);
+                }
+            }
         }
+    }
+
+    /**
+     * @return true if the client copy is still current, based on If-None-Match or, when absent, If-Modified-Since
+     */
+    private static boolean isNotModified(StaplerRequest req, String etag, BasicFileAttributes attributes) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || stripWeak(tag).equals(stripWeak(etag))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = req.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // HTTP dates have a one second resolution
+        return ifModifiedSince != -1 && attributes.lastModifiedTime().toMillis() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * @return the inclusive bounds of the single byte range to send, null to send the whole file, an empty array if
+     * the range cannot be satisfied
+     */
+    @Nullable
+    private static long[] requestedRange(StaplerRequest req, String etag, BasicFileAttributes attributes, long size) {
+        String range = req.getHeader("Range");
+        if (range == null || !range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            // multiple ranges are answered with the whole file
+            return null;
+        }
+        String ifRange = req.getHeader("If-Range");
+        if (ifRange != null) {
+            if (ifRange.startsWith("\"")) {
+                if (!ifRange.equals(etag)) {
+                    return null;
+                }
+            } else if (ifRange.startsWith("W/")) {
+                // weak validators cannot be used for ranges
+                return null;
+            } else {
+                try {
+                    if (attributes.lastModifiedTime().toMillis() / 1000 != req.getDateHeader("If-Range") / 1000) {
+                        return null;
+                    }
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1
+                    ? size - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), size - 1);
+            }
+            if (start >= size || start > end) {
+                return new long[0];
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 
-        serveFile(file, req, rsp);
+    private static String weakETag(BasicFileAttributes attributes) {
+        return "W/\"" + Long.toHexString(attributes.size()) + "-"
+            + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "\"";
+    }
 
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
     }
 
-    private void serveFile(File file, StaplerRequest req, StaplerResponse rsp) throws IOException, ServletException {
-        // serve the file without Content-Security-Policy
-        long lastModified = file.lastModified();
-        long length = file.length();
-        try (InputStream in = new FileInputStream(file)) {
-            rsp.serveFile(req, in, lastModified, -1, length, file.getName());
+    /**
+     * Identity of a file at the time its checksum was verified.
+     */
+    private static final class VerifiedFile {
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final Object fileKey;
+
+        private final String checksum;
+
+        VerifiedFile(BasicFileAttributes attributes, String checksum) {
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+            this.fileKey = attributes.fileKey();
+            this.checksum = checksum;
+        }
+
+        boolean matches(BasicFileAttributes attributes, String expectedChecksum) {
+            return size == attributes.size()
+                && lastModified == attributes.lastModifiedTime().toMillis()
+                && Objects.equals(fileKey, attributes.fileKey())
+                && checksum.equals(expectedChecksum);
         }
     }
-}
\ No newline at end of file
+}
@@ -29,6 +29,6 @@ public class SafeArchiveServingRunAction extends SafeArchiveServingAction implem
 
     @Override
     public void onLoad(Run<?, ?> r) {
-
+        // the checksum manifest is only read on the first request for a report file
     }
 }
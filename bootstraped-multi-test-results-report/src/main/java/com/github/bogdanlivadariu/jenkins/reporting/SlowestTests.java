@@ -0,0 +1,84 @@
+package com.github.bogdanlivadariu.jenkins.reporting;
+
+import hudson.model.Job;
+import jenkins.util.SystemProperties;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The slowest tests of a job and the tests that slowed down the most in its last build, from the
+ * {@link DurationHistory}.
+ */
+public final class SlowestTests {
+
+    /**
+     * How many tests every table of the page shows.
+     */
+    static final int TESTS = SystemProperties.getInteger(SlowestTests.class.getName() + ".tests", 25);
+
+    private static final Logger LOGGER = Logger.getLogger(SlowestTests.class.getName());
+
+    private final List<DurationHistory.Test> slowest;
+
+    private final List<DurationHistory.Test> regressions;
+
+    SlowestTests(List<DurationHistory.Test> tests, int limit) {
+        List<DurationHistory.Test> byP95 = new ArrayList<>(tests);
+        byP95.sort(Comparator.comparingLong(DurationHistory.Test::getP95Millis).reversed());
+        this.slowest = Collections.unmodifiableList(byP95.subList(0, Math.min(limit, byP95.size())));
+
+        int lastBuild = 0;
+        for (DurationHistory.Test test : tests) {
+            lastBuild = Math.max(lastBuild, test.getLastBuild());
+        }
+        List<DurationHistory.Test> slower = new ArrayList<>();
+        for (DurationHistory.Test test : tests) {
+            // a regression is only measured against a few earlier runs, of a test the last build ran
+            if (test.getLastBuild() == lastBuild && test.getRuns() > 2 && test.getIncreaseMillis() > 0) {
+                slower.add(test);
+            }
+        }
+        slower.sort(Comparator.comparingLong(DurationHistory.Test::getIncreaseMillis).reversed());
+        this.regressions = Collections.unmodifiableList(slower.subList(0, Math.min(limit, slower.size())));
+    }
+
+    /**
+     * @param job the job
+     * @param reportDirectory the name of the folder the reports are written to in every build
+     * @return the slowest tests, none if the history cannot be read
+     */
+    public static SlowestTests of(Job<?, ?> job, String reportDirectory) {
+        try {
+            return new SlowestTests(DurationHistory.read(DurationHistory.keysFile(job, reportDirectory),
+                DurationHistory.samplesFile(job, reportDirectory)), TESTS);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not read the test durations of " + job.getFullName(), e);
+            return new SlowestTests(Collections.emptyList(), TESTS);
+        }
+    }
+
+    /**
+     * @return the tests with the highest 95th percentile duration, slowest first
+     */
+    public List<DurationHistory.Test> getSlowest() {
+        return slowest;
+    }
+
+    /**
+     * @return the tests of the last build that took longer than the median of their earlier runs, biggest increase
+     * first
+     */
+    public List<DurationHistory.Test> getRegressions() {
+        return regressions;
+    }
+
+    public boolean isEmpty() {
+        return slowest.isEmpty();
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.bogdanlivadariu.jenkins.reporting;
+
+import hudson.model.Action;
+import hudson.model.Job;
+
+/**
+ * The page of the slowest tests of a job, added to the project by the publishers.
+ */
+public class SlowestTestsAction implements Action {
+
+    private final Job<?, ?> job;
+
+    private final String reportDirectory;
+
+    private final String displayName;
+
+    private final String iconFileName;
+
+    /**
+     * @param job the job
+     * @param reportDirectory the name of the folder the reports are written to in every build
+     * @param displayName the name of the page
+     * @param iconFileName the icon of the page
+     */
+    public SlowestTestsAction(Job<?, ?> job, String reportDirectory, String displayName, String iconFileName) {
+        this.job = job;
+        this.reportDirectory = reportDirectory;
+        this.displayName = displayName;
+        this.iconFileName = iconFileName;
+    }
+
+    public Job<?, ?> getJob() {
+        return job;
+    }
+
+    public String getUrlName() {
+        return reportDirectory + "-slowest";
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getIconFileName() {
+        return iconFileName;
+    }
+
+    /**
+     * @return the slowest tests, read from the duration history on every request
+     */
+    public SlowestTests getTests() {
+        return SlowestTests.of(job, reportDirectory);
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.bogdanlivadariu.jenkins.reporting;
+
+import hudson.model.Job;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The trend of the last builds of a job, drawn on the project page from the {@link TrendIndex}.
+ */
+public final class Trend {
+
+    private static final Logger LOGGER = Logger.getLogger(Trend.class.getName());
+
+    private final String title;
+
+    private final List<TrendIndex.Entry> entries;
+
+    private final int maxTotal;
+
+    private final long maxDuration;
+
+    Trend(String title, List<TrendIndex.Entry> entries) {
+        this.title = title;
+        this.entries = Collections.unmodifiableList(entries);
+        int total = 1;
+        long duration = 1;
+        for (TrendIndex.Entry entry : entries) {
+            total = Math.max(total, entry.getTotal());
+            duration = Math.max(duration, entry.getDurationMillis());
+        }
+        this.maxTotal = total;
+        this.maxDuration = duration;
+    }
+
+    /**
+     * @param job the job
+     * @param reportDirectory the name of the folder the reports are written to in every build
+     * @param title the title of the charts
+     * @return the trend of the last builds, empty if the index cannot be read
+     */
+    public static Trend of(Job<?, ?> job, String reportDirectory, String title) {
+        try {
+            return new Trend(title, TrendIndex.read(TrendIndex.file(job, reportDirectory), TrendIndex.BUILDS));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not read the trend of " + job.getFullName(), e);
+            return new Trend(title, Collections.emptyList());
+        }
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public List<TrendIndex.Entry> getEntries() {
+        return entries;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * @return the highest number of tests of the builds, at least 1, the result bars are drawn relative to it
+     */
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    /**
+     * @return the longest duration of the builds, at least 1, the duration bars are drawn relative to it
+     */
+    public long getMaxDuration() {
+        return maxDuration;
+    }
+}
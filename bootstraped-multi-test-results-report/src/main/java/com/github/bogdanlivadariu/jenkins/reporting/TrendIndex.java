@@ -0,0 +1,228 @@
+package com.github.bogdanlivadariu.jenkins.reporting;
+
+import hudson.Util;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import jenkins.util.SystemProperties;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The totals of every build of a job, appended by the publishers to a binary file next to the job config, so the
+ * project page draws the trend of the last builds without loading any of them. After a small header the file holds
+ * fixed length records in the order the builds published them, reading the last builds is a single read at the end of
+ * the file however many builds the job has.
+ */
+public final class TrendIndex {
+
+    /**
+     * How many of the last builds the project page shows.
+     */
+    static final int BUILDS = SystemProperties.getInteger(TrendIndex.class.getName() + ".builds", 50);
+
+    private static final int MAGIC = 0x54524e44;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_LENGTH = 8;
+
+    private static final int RECORD_LENGTH = 36;
+
+    private TrendIndex() {
+    }
+
+    /**
+     * @param job the job
+     * @param reportDirectory the name of the folder the reports are written to in every build
+     * @return the index file of the reports
+     */
+    public static File file(Job<?, ?> job, String reportDirectory) {
+        return new File(job.getRootDir(), reportDirectory + "-trend.bin");
+    }
+
+    /**
+     * Appends the totals of a build to the index of its job. A failure is only logged, the trend is not worth failing
+     * the build for.
+     *
+     * @param run the build
+     * @param reportDirectory the name of the folder the reports of the build are written to
+     * @param entry the totals of the build
+     * @param listener the build listener
+     */
+    public static void record(Run<?, ?> run, String reportDirectory, Entry entry, TaskListener listener) {
+        try {
+            append(file(run.getParent(), reportDirectory), entry);
+        } catch (IOException e) {
+            listener.getLogger().println("Could not record the trend of the reports: " + e);
+        }
+    }
+
+    /**
+     * @param file the index file, created if it does not exist
+     * @param entry the totals of a build
+     * @throws IOException if the index cannot be written or is not a trend index
+     */
+    static void append(File file, Entry entry) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_LENGTH);
+        record.putInt(entry.number).putLong(entry.timestamp).putInt(entry.total).putInt(entry.passed)
+            .putInt(entry.failed).putInt(entry.skipped).putLong(entry.durationMillis).flip();
+        synchronized (FileLocks.of(file)) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = channel.size();
+                if (size < HEADER_LENGTH) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+                    header.putInt(MAGIC).putInt(VERSION).flip();
+                    channel.truncate(0);
+                    writeFully(channel, header, 0);
+                    size = HEADER_LENGTH;
+                } else {
+                    checkHeader(channel, file);
+                    // a record cut short by a crash is overwritten
+                    size -= (size - HEADER_LENGTH) % RECORD_LENGTH;
+                    channel.truncate(size);
+                }
+                writeFully(channel, record, size);
+            }
+        }
+    }
+
+    /**
+     * @param file the index file
+     * @param limit how many of the last builds to read
+     * @return the totals of the last builds, by build number, empty if the file does not exist
+     * @throws IOException if the index cannot be read or is not a trend index
+     */
+    static List<Entry> read(File file, int limit) throws IOException {
+        SortedMap<Integer, Entry> entries = new TreeMap<>();
+        if (!file.isFile()) {
+            return new ArrayList<>();
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_LENGTH) {
+                return new ArrayList<>();
+            }
+            checkHeader(channel, file);
+            long records = (size - HEADER_LENGTH) / RECORD_LENGTH;
+            long first = Math.max(0, records - limit);
+            ByteBuffer content = ByteBuffer.allocate((int) (records - first) * RECORD_LENGTH);
+            readFully(channel, content, HEADER_LENGTH + first * RECORD_LENGTH);
+            content.flip();
+            while (content.hasRemaining()) {
+                Entry entry = new Entry(content.getInt(), content.getLong(), content.getInt(), content.getInt(),
+                    content.getInt(), content.getInt(), content.getLong());
+                // a build publishing the same kind of reports twice keeps its last totals, concurrent builds may
+                // append out of order
+                entries.put(entry.number, entry);
+            }
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    private static void checkHeader(FileChannel channel, File file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        readFully(channel, header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException(file + " is not a trend index");
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of the trend index");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * The totals of one build.
+     */
+    public static final class Entry {
+
+        private final int number;
+
+        private final long timestamp;
+
+        private final int total;
+
+        private final int passed;
+
+        private final int failed;
+
+        private final int skipped;
+
+        private final long durationMillis;
+
+        /**
+         * @param run the build
+         * @param total the number of tests
+         * @param passed the number of passed tests
+         * @param failed the number of failed tests
+         * @param skipped the number of skipped tests
+         * @param durationMillis the time the tests took, in milliseconds
+         */
+        public Entry(Run<?, ?> run, int total, int passed, int failed, int skipped, long durationMillis) {
+            this(run.getNumber(), run.getTimeInMillis(), total, passed, failed, skipped, durationMillis);
+        }
+
+        Entry(int number, long timestamp, int total, int passed, int failed, int skipped, long durationMillis) {
+            this.number = number;
+            this.timestamp = timestamp;
+            this.total = total;
+            this.passed = passed;
+            this.failed = failed;
+            this.skipped = skipped;
+            this.durationMillis = durationMillis;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getPassed() {
+            return passed;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public String getDurationString() {
+            return Util.getTimeSpanString(durationMillis);
+        }
+    }
+}
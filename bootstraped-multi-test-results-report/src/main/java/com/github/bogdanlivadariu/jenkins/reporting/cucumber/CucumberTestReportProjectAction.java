@@ -1,5 +1,6 @@
 package com.github.bogdanlivadariu.jenkins.reporting.cucumber;
 
+import com.github.bogdanlivadariu.jenkins.reporting.Trend;
 import hudson.model.AbstractProject;
 import hudson.model.ProminentProjectAction;
 import hudson.model.Run;
@@ -21,4 +22,11 @@ public class CucumberTestReportProjectAction extends CucumberTestReportBaseActio
                 .map(it -> it + "/cucumber-reports-with-handlebars/featuresOverview.html")
                 .orElse("if-this-happens-contact-dev");
     }
+
+    /**
+     * @return the trend of the last builds, drawn by floatingBox.jelly
+     */
+    public Trend getTrend() {
+        return Trend.of(project, "cucumber-reports-with-handlebars", "Cucumber scenarios");
+    }
 }
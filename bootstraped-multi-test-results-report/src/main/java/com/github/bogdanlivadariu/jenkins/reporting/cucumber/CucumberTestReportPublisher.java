@@ -1,9 +1,17 @@
 package com.github.bogdanlivadariu.jenkins.reporting.cucumber;
 
+import com.github.bogdanlivadariu.jenkins.reporting.DurationHistory;
 import com.github.bogdanlivadariu.jenkins.reporting.SafeArchiveServingRunAction;
+import com.github.bogdanlivadariu.jenkins.reporting.SlowestTestsAction;
+import com.github.bogdanlivadariu.jenkins.reporting.TrendIndex;
+import com.github.bogdanlivadariu.reporting.core.ReportCache;
+import com.github.bogdanlivadariu.reporting.cucumber.builder.AllFeatureReports;
 import com.github.bogdanlivadariu.reporting.cucumber.builder.CucumberReportBuilder;
+import com.github.bogdanlivadariu.reporting.cucumber.helpers.EmbeddingExtractor;
 import com.github.bogdanlivadariu.reporting.cucumber.helpers.SpecialProperties;
 import com.github.bogdanlivadariu.reporting.cucumber.helpers.SpecialProperties.SpecialKeyProperties;
+import com.github.bogdanlivadariu.reporting.cucumber.json.models.Element;
+import com.github.bogdanlivadariu.reporting.cucumber.json.models.Feature;
 import hudson.Extension;
 import hudson.FilePath;
 import hudson.Launcher;
@@ -18,10 +26,15 @@ import hudson.tasks.BuildStepMonitor;
 import hudson.tasks.Publisher;
 import jenkins.tasks.SimpleBuildStep;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import javax.annotation.Nonnull;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static com.github.bogdanlivadariu.jenkins.reporting.Helper.findFiles;
 import static com.github.bogdanlivadariu.jenkins.reporting.Helper.fullPathToFiles;
@@ -43,6 +56,12 @@ public class CucumberTestReportPublisher extends Publisher implements SimpleBuil
 
     private final boolean ignoreUndefinedSteps;
 
+    private int parallelism = 1;
+
+    private boolean incremental;
+
+    private boolean summaryOnly;
+
     private final SpecialProperties props;
 
     @DataBoundConstructor
@@ -85,6 +104,33 @@ public class CucumberTestReportPublisher extends Publisher implements SimpleBuil
         return ignoreUndefinedSteps;
     }
 
+    public int getParallelism() {
+        return parallelism < 1 ? 1 : parallelism;
+    }
+
+    @DataBoundSetter
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    @DataBoundSetter
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public boolean isSummaryOnly() {
+        return summaryOnly;
+    }
+
+    @DataBoundSetter
+    public void setSummaryOnly(boolean summaryOnly) {
+        this.summaryOnly = summaryOnly;
+    }
+
     public boolean generateReport(Run<?, ?> build, FilePath workspace, TaskListener listener)
         throws IOException, InterruptedException {
 
@@ -149,8 +195,18 @@ public class CucumberTestReportPublisher extends Publisher implements SimpleBuil
                 }
                 CucumberReportBuilder rep = new CucumberReportBuilder(
                     fullPathToFiles(jsonReportFiles, targetBuildJsonDirectory),
-                    targetBuildDirectory.getAbsolutePath(), props);
+                    targetBuildDirectory.getAbsolutePath(), props, getParallelism(), isSummaryOnly(),
+                    targetBuildJsonDirectory.getAbsolutePath());
+                if (isIncremental()) {
+                    rep.setReportCache(new ReportCache(
+                        new File(build.getParent().getRootDir(), "cucumber-reports-with-handlebars-cache")));
+                }
                 boolean featuresResult = rep.writeReportsOnDisk();
+                recordTrend(build, rep, listener);
+                // the passed tests are dropped from the models in summary only mode, their durations with them
+                if (!isSummaryOnly()) {
+                    recordDurations(build, rep, listener);
+                }
                 if (featuresResult) {
                     result = Result.SUCCESS;
                 } else {
@@ -167,7 +223,9 @@ public class CucumberTestReportPublisher extends Publisher implements SimpleBuil
                     listener.getLogger().println(
                         "[Cucumber test report builder] Copying report to workspace directory: "
                             + workspaceCopyDirectory.toURI());
-                    new FilePath(targetBuildDirectory).copyRecursiveTo("**/*.html", workspaceCopyDirectory);
+                    // the feature pages link to the embeddings extracted next to them
+                    new FilePath(targetBuildDirectory).copyRecursiveTo(
+                        "**/*.html,**/" + EmbeddingExtractor.EMBEDDINGS_FOLDER + "/**", workspaceCopyDirectory);
                 }
 
             } catch (Exception e) {
@@ -188,6 +246,27 @@ public class CucumberTestReportPublisher extends Publisher implements SimpleBuil
         return true;
     }
 
+    private static void recordTrend(Run<?, ?> build, CucumberReportBuilder rep, TaskListener listener) {
+        AllFeatureReports totals = rep.getOverview();
+        // cucumber reports the durations in nanoseconds
+        TrendIndex.record(build, "cucumber-reports-with-handlebars", new TrendIndex.Entry(build,
+            totals.getScenariosTotal(), totals.getScenariosTotalPassed(), totals.getScenariosTotalFailed(), 0,
+            totals.getTotalDuration() / 1000000), listener);
+    }
+
+    private static void recordDurations(Run<?, ?> build, CucumberReportBuilder rep, TaskListener listener) {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (Feature feature : rep.getProcessedFeatures()) {
+            for (Element element : feature.getElements()) {
+                // every example of a scenario outline has its own id, a background has none
+                String key = element.getId() != null ? element.getId() : feature.getName() + " / " + element.getName();
+                // cucumber reports the durations in nanoseconds
+                durations.merge(key, element.getTotalDuration() / 1000000, Long::sum);
+            }
+        }
+        DurationHistory.record(build, "cucumber-reports-with-handlebars", durations, listener);
+    }
+
     @Override public void perform(@Nonnull Run<?, ?> run, @Nonnull FilePath filePath, @Nonnull Launcher launcher,
         @Nonnull TaskListener taskListener) throws InterruptedException, IOException {
         generateReport(run, filePath, taskListener);
@@ -199,6 +278,7 @@ public class CucumberTestReportPublisher extends Publisher implements SimpleBuil
             CucumberTestReportBaseAction.ICON_LOCATON,
             CucumberTestReportBaseAction.DISPLAY_NAME);
         run.addAction(caa);
+        caa.printScanStatistics(taskListener);
     }
 
     public BuildStepMonitor getRequiredMonitorService() {
@@ -210,6 +290,13 @@ public class CucumberTestReportPublisher extends Publisher implements SimpleBuil
         return new CucumberTestReportProjectAction(project);
     }
 
+    @Override
+    public Collection<? extends Action> getProjectActions(AbstractProject<?, ?> project) {
+        return Arrays.asList(getProjectAction(project),
+            new SlowestTestsAction(project, "cucumber-reports-with-handlebars", "Slowest Cucumber scenarios",
+                CucumberTestReportBaseAction.ICON_LOCATON));
+    }
+
     @Extension
     public static class DescriptorImpl extends CucumberTestReportBuildStepDescriptor {
     }
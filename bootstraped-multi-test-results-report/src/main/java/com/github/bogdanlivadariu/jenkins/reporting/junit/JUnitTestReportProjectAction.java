@@ -1,5 +1,6 @@
 package com.github.bogdanlivadariu.jenkins.reporting.junit;
 
+import com.github.bogdanlivadariu.jenkins.reporting.Trend;
 import hudson.model.AbstractProject;
 import hudson.model.ProminentProjectAction;
 import hudson.model.Run;
@@ -21,4 +22,11 @@ public class JUnitTestReportProjectAction extends JUnitTestReportBaseAction impl
                 .map(it -> it + "/junit-reports-with-handlebars/testSuitesOverview.html")
                 .orElse("if-this-happens-contact-dev");
     }
+
+    /**
+     * @return the trend of the last builds, drawn by floatingBox.jelly
+     */
+    public Trend getTrend() {
+        return Trend.of(project, "junit-reports-with-handlebars", "JUnit tests");
+    }
 }
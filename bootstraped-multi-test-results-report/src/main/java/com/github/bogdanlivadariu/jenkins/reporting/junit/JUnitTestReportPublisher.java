@@ -1,7 +1,14 @@
 package com.github.bogdanlivadariu.jenkins.reporting.junit;
 
+import com.github.bogdanlivadariu.jenkins.reporting.DurationHistory;
 import com.github.bogdanlivadariu.jenkins.reporting.SafeArchiveServingRunAction;
+import com.github.bogdanlivadariu.jenkins.reporting.SlowestTestsAction;
+import com.github.bogdanlivadariu.jenkins.reporting.TrendIndex;
+import com.github.bogdanlivadariu.reporting.core.ReportCache;
+import com.github.bogdanlivadariu.reporting.junit.builder.AllJUnitReports;
 import com.github.bogdanlivadariu.reporting.junit.builder.JUnitReportBuilder;
+import com.github.bogdanlivadariu.reporting.junit.xml.models.TestCaseModel;
+import com.github.bogdanlivadariu.reporting.junit.xml.models.TestSuiteModel;
 import hudson.Extension;
 import hudson.FilePath;
 import hudson.Launcher;
@@ -16,10 +23,15 @@ import hudson.tasks.BuildStepMonitor;
 import hudson.tasks.Publisher;
 import jenkins.tasks.SimpleBuildStep;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import javax.annotation.Nonnull;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static com.github.bogdanlivadariu.jenkins.reporting.Helper.findFiles;
 import static com.github.bogdanlivadariu.jenkins.reporting.Helper.fullPathToFiles;
@@ -39,6 +51,12 @@ public class JUnitTestReportPublisher extends Publisher implements SimpleBuildSt
 
     private final boolean copyHTMLInWorkspace;
 
+    private int parallelism = 1;
+
+    private boolean incremental;
+
+    private boolean summaryOnly;
+
     @DataBoundConstructor
     public JUnitTestReportPublisher(String reportsDirectory, String fileIncludePattern, String fileExcludePattern,
         boolean markAsUnstable, boolean copyHTMLInWorkspace) {
@@ -69,6 +87,33 @@ public class JUnitTestReportPublisher extends Publisher implements SimpleBuildSt
         return copyHTMLInWorkspace;
     }
 
+    public int getParallelism() {
+        return parallelism < 1 ? 1 : parallelism;
+    }
+
+    @DataBoundSetter
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    @DataBoundSetter
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public boolean isSummaryOnly() {
+        return summaryOnly;
+    }
+
+    @DataBoundSetter
+    public void setSummaryOnly(boolean summaryOnly) {
+        this.summaryOnly = summaryOnly;
+    }
+
     public boolean generateReport(Run<?, ?> build, FilePath workspace, TaskListener listener)
         throws IOException, InterruptedException {
 
@@ -135,9 +180,19 @@ public class JUnitTestReportPublisher extends Publisher implements SimpleBuildSt
                 }
                 JUnitReportBuilder rep =
                     new JUnitReportBuilder(fullPathToFiles(reportFiles, targetBuildJsonDirectory),
-                        targetBuildDirectory.getAbsolutePath());
+                        targetBuildDirectory.getAbsolutePath(), getParallelism(), isSummaryOnly(),
+                        targetBuildJsonDirectory.getAbsolutePath());
+                if (isIncremental()) {
+                    rep.setReportCache(new ReportCache(
+                        new File(build.getParent().getRootDir(), "junit-reports-with-handlebars-cache")));
+                }
 
                 boolean featuresResult = rep.writeReportsOnDisk();
+                recordTrend(build, rep, listener);
+                // the passed tests are dropped from the models in summary only mode, their durations with them
+                if (!isSummaryOnly()) {
+                    recordDurations(build, rep, listener);
+                }
                 if (featuresResult) {
                     result = Result.SUCCESS;
                 } else {
@@ -174,6 +229,25 @@ public class JUnitTestReportPublisher extends Publisher implements SimpleBuildSt
         return true;
     }
 
+    private static void recordTrend(Run<?, ?> build, JUnitReportBuilder rep, TaskListener listener) {
+        AllJUnitReports totals = rep.getOverview();
+        int failed = totals.getTotalFailures() + totals.getTotalErrors();
+        int passed = Math.max(0, totals.getTotalTests() - failed - totals.getTotalSkipped());
+        TrendIndex.record(build, "junit-reports-with-handlebars", new TrendIndex.Entry(build, totals.getTotalTests(),
+            passed, failed, totals.getTotalSkipped(), (long) (totals.getTotalTime() * 1000)), listener);
+    }
+
+    private static void recordDurations(Run<?, ?> build, JUnitReportBuilder rep, TaskListener listener) {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (TestSuiteModel suite : rep.getProcessedTestSuites()) {
+            for (TestCaseModel test : suite.getTestcase()) {
+                String className = test.getClassname() == null ? suite.getName() : test.getClassname();
+                durations.merge(className + "." + test.getName(), (long) (test.getTime() * 1000), Long::sum);
+            }
+        }
+        DurationHistory.record(build, "junit-reports-with-handlebars", durations, listener);
+    }
+
     @Override public void perform(@Nonnull Run<?, ?> run, @Nonnull FilePath filePath, @Nonnull Launcher launcher,
         @Nonnull TaskListener taskListener) throws InterruptedException, IOException {
         generateReport(run, filePath, taskListener);
@@ -185,6 +259,7 @@ public class JUnitTestReportPublisher extends Publisher implements SimpleBuildSt
             JUnitTestReportBaseAction.ICON_LOCATON,
             JUnitTestReportBaseAction.DISPLAY_NAME);
         run.addAction(caa);
+        caa.printScanStatistics(taskListener);
     }
 
     public BuildStepMonitor getRequiredMonitorService() {
@@ -196,6 +271,13 @@ public class JUnitTestReportPublisher extends Publisher implements SimpleBuildSt
         return new JUnitTestReportProjectAction(project);
     }
 
+    @Override
+    public Collection<? extends Action> getProjectActions(AbstractProject<?, ?> project) {
+        return Arrays.asList(getProjectAction(project),
+            new SlowestTestsAction(project, "junit-reports-with-handlebars", "Slowest JUnit tests",
+                JUnitTestReportBaseAction.ICON_LOCATON));
+    }
+
     @Extension
     public static class DescriptorImpl extends JUnitTestReportBuildStepDescriptor {
     }
@@ -1,5 +1,6 @@
 package com.github.bogdanlivadariu.jenkins.reporting.rspec;
 
+import com.github.bogdanlivadariu.jenkins.reporting.Trend;
 import hudson.model.AbstractProject;
 import hudson.model.ProminentProjectAction;
 import hudson.model.Run;
@@ -21,4 +22,11 @@ public class RSpecTestReportProjectAction extends RSpecTestReportBaseAction impl
                 .map(it -> it + "/rspec-reports-with-handlebars/testsByClassOverview.html")
                 .orElse("if-this-happens-contact-dev");
     }
+
+    /**
+     * @return the trend of the last builds, drawn by floatingBox.jelly
+     */
+    public Trend getTrend() {
+        return Trend.of(project, "rspec-reports-with-handlebars", "RSpec examples");
+    }
 }
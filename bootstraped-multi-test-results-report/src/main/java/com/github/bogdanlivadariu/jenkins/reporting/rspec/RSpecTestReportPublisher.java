@@ -1,7 +1,14 @@
 package com.github.bogdanlivadariu.jenkins.reporting.rspec;
 
+import com.github.bogdanlivadariu.jenkins.reporting.DurationHistory;
 import com.github.bogdanlivadariu.jenkins.reporting.SafeArchiveServingRunAction;
+import com.github.bogdanlivadariu.jenkins.reporting.SlowestTestsAction;
+import com.github.bogdanlivadariu.jenkins.reporting.TrendIndex;
+import com.github.bogdanlivadariu.reporting.core.ReportCache;
+import com.github.bogdanlivadariu.reporting.rspec.builder.AllRSpecJUnitReports;
 import com.github.bogdanlivadariu.reporting.rspec.builder.RSpecReportBuilder;
+import com.github.bogdanlivadariu.reporting.rspec.xml.models.TestCaseModel;
+import com.github.bogdanlivadariu.reporting.rspec.xml.models.TestSuiteModel;
 import hudson.Extension;
 import hudson.FilePath;
 import hudson.Launcher;
@@ -16,10 +23,15 @@ import hudson.tasks.BuildStepMonitor;
 import hudson.tasks.Publisher;
 import jenkins.tasks.SimpleBuildStep;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import javax.annotation.Nonnull;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.github.bogdanlivadariu.jenkins.reporting.Helper.findFiles;
@@ -40,6 +52,12 @@ public class RSpecTestReportPublisher extends Publisher implements SimpleBuildSt
 
     private final boolean copyHTMLInWorkspace;
 
+    private int parallelism = 1;
+
+    private boolean incremental;
+
+    private boolean summaryOnly;
+
     @DataBoundConstructor
     public RSpecTestReportPublisher(String reportsDirectory, String fileIncludePattern, String fileExcludePattern,
         boolean markAsUnstable, boolean copyHTMLInWorkspace) {
@@ -70,6 +88,33 @@ public class RSpecTestReportPublisher extends Publisher implements SimpleBuildSt
         return copyHTMLInWorkspace;
     }
 
+    public int getParallelism() {
+        return parallelism < 1 ? 1 : parallelism;
+    }
+
+    @DataBoundSetter
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    @DataBoundSetter
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public boolean isSummaryOnly() {
+        return summaryOnly;
+    }
+
+    @DataBoundSetter
+    public void setSummaryOnly(boolean summaryOnly) {
+        this.summaryOnly = summaryOnly;
+    }
+
     public boolean generateReports(Run<?, ?> build, FilePath workspace, TaskListener listener)
         throws IOException, InterruptedException {
 
@@ -135,9 +180,19 @@ public class RSpecTestReportPublisher extends Publisher implements SimpleBuildSt
                 }
                 RSpecReportBuilder rep =
                     new RSpecReportBuilder(fullPathToFiles(reportFiles, targetBuildJsonDirectory),
-                        targetBuildDirectory.getAbsolutePath());
+                        targetBuildDirectory.getAbsolutePath(), getParallelism(), isSummaryOnly(),
+                        targetBuildJsonDirectory.getAbsolutePath());
+                if (isIncremental()) {
+                    rep.setReportCache(new ReportCache(
+                        new File(build.getParent().getRootDir(), "rspec-reports-with-handlebars-cache")));
+                }
 
                 boolean featuresResult = rep.writeReportsOnDisk();
+                recordTrend(build, rep, listener);
+                // the passed tests are dropped from the models in summary only mode, their durations with them
+                if (!isSummaryOnly()) {
+                    recordDurations(build, rep, listener);
+                }
                 if (featuresResult) {
                     result = Result.SUCCESS;
                 } else {
@@ -175,6 +230,28 @@ public class RSpecTestReportPublisher extends Publisher implements SimpleBuildSt
         return true;
     }
 
+    private static void recordTrend(Run<?, ?> build, RSpecReportBuilder rep, TaskListener listener) {
+        AllRSpecJUnitReports totals = rep.getOverview();
+        int failed = totals.getTotalFailures() + totals.getTotalErrors();
+        int passed = Math.max(0, totals.getTotalTests() - failed - totals.getTotalSkipped());
+        TrendIndex.record(build, "rspec-reports-with-handlebars", new TrendIndex.Entry(build, totals.getTotalTests(),
+            passed, failed, totals.getTotalSkipped(), (long) (totals.getTotalTime() * 1000)), listener);
+    }
+
+    private static void recordDurations(Run<?, ?> build, RSpecReportBuilder rep, TaskListener listener) {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (TestSuiteModel suite : rep.getProcessedTestSuites()) {
+            if (suite.getTestcase() == null) {
+                continue;
+            }
+            for (TestCaseModel test : suite.getTestcase()) {
+                String className = test.getClassname() == null ? suite.getName() : test.getClassname();
+                durations.merge(className + "." + test.getName(), (long) (test.getTime() * 1000), Long::sum);
+            }
+        }
+        DurationHistory.record(build, "rspec-reports-with-handlebars", durations, listener);
+    }
+
     @Override public void perform(@Nonnull Run<?, ?> run, @Nonnull FilePath workspace, @Nonnull Launcher launcher,
         @Nonnull TaskListener listener) throws InterruptedException, IOException {
         listener.getLogger().println("[RSpecReportPublisher] searching for files ...");
@@ -186,6 +263,7 @@ public class RSpecTestReportPublisher extends Publisher implements SimpleBuildSt
             RSpecTestReportBaseAction.ICON_LOCATON,
             RSpecTestReportBaseAction.DISPLAY_NAME);
         run.addAction(caa);
+        caa.printScanStatistics(listener);
     }
 
     public BuildStepMonitor getRequiredMonitorService() {
@@ -197,6 +275,13 @@ public class RSpecTestReportPublisher extends Publisher implements SimpleBuildSt
         return new RSpecTestReportProjectAction(project);
     }
 
+    @Override
+    public Collection<? extends Action> getProjectActions(AbstractProject<?, ?> project) {
+        return Arrays.asList(getProjectAction(project),
+            new SlowestTestsAction(project, "rspec-reports-with-handlebars", "Slowest RSpec tests",
+                RSpecTestReportBaseAction.ICON_LOCATON));
+    }
+
     @Extension
     public static class DescriptorImpl extends RSpecTestReportBuildStepDescriptor {
     }
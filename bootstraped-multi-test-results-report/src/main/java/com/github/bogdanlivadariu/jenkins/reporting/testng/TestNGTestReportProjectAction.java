@@ -1,5 +1,6 @@
 package com.github.bogdanlivadariu.jenkins.reporting.testng;
 
+import com.github.bogdanlivadariu.jenkins.reporting.Trend;
 import hudson.model.AbstractProject;
 import hudson.model.ProminentProjectAction;
 import hudson.model.Run;
@@ -21,4 +22,11 @@ public class TestNGTestReportProjectAction extends TestNGTestReportBaseAction im
                 .map(it -> it + "/testng-reports-with-handlebars/testsByClassOverview.html")
                 .orElse("if-this-happens-contact-dev");
     }
+
+    /**
+     * @return the trend of the last builds, drawn by floatingBox.jelly
+     */
+    public Trend getTrend() {
+        return Trend.of(project, "testng-reports-with-handlebars", "TestNG tests");
+    }
 }
@@ -1,7 +1,17 @@
 package com.github.bogdanlivadariu.jenkins.reporting.testng;
 
+import com.github.bogdanlivadariu.jenkins.reporting.DurationHistory;
 import com.github.bogdanlivadariu.jenkins.reporting.SafeArchiveServingRunAction;
+import com.github.bogdanlivadariu.jenkins.reporting.SlowestTestsAction;
+import com.github.bogdanlivadariu.jenkins.reporting.TrendIndex;
+import com.github.bogdanlivadariu.reporting.core.ReportCache;
+import com.github.bogdanlivadariu.reporting.testng.builder.AllTestNgReports;
 import com.github.bogdanlivadariu.reporting.testng.builder.TestNgReportBuilder;
+import com.github.bogdanlivadariu.reporting.testng.xml.models.ClassModel;
+import com.github.bogdanlivadariu.reporting.testng.xml.models.SuiteModel;
+import com.github.bogdanlivadariu.reporting.testng.xml.models.TestMethodModel;
+import com.github.bogdanlivadariu.reporting.testng.xml.models.TestModel;
+import com.github.bogdanlivadariu.reporting.testng.xml.models.TestngResultsModel;
 import hudson.Extension;
 import hudson.FilePath;
 import hudson.Launcher;
@@ -16,10 +26,15 @@ import hudson.tasks.BuildStepMonitor;
 import hudson.tasks.Publisher;
 import jenkins.tasks.SimpleBuildStep;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import javax.annotation.Nonnull;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static com.github.bogdanlivadariu.jenkins.reporting.Helper.findFiles;
 import static com.github.bogdanlivadariu.jenkins.reporting.Helper.fullPathToFiles;
@@ -38,6 +53,12 @@ public class TestNGTestReportPublisher extends Publisher implements SimpleBuildS
 
     private final boolean copyHTMLInWorkspace;
 
+    private int parallelism = 1;
+
+    private boolean incremental;
+
+    private boolean summaryOnly;
+
     @DataBoundConstructor
     public TestNGTestReportPublisher(String reportsDirectory, String fileIncludePattern, String fileExcludePattern,
         boolean markAsUnstable, boolean copyHTMLInWorkspace) {
@@ -56,6 +77,33 @@ public class TestNGTestReportPublisher extends Publisher implements SimpleBuildS
         return copyHTMLInWorkspace;
     }
 
+    public int getParallelism() {
+        return parallelism < 1 ? 1 : parallelism;
+    }
+
+    @DataBoundSetter
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    @DataBoundSetter
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public boolean isSummaryOnly() {
+        return summaryOnly;
+    }
+
+    @DataBoundSetter
+    public void setSummaryOnly(boolean summaryOnly) {
+        this.summaryOnly = summaryOnly;
+    }
+
     public String getFileIncludePattern() {
         return fileIncludePattern;
     }
@@ -131,9 +179,19 @@ public class TestNGTestReportPublisher extends Publisher implements SimpleBuildS
                 }
                 TestNgReportBuilder rep =
                     new TestNgReportBuilder(fullPathToFiles(reportFiles, targetBuildJsonDirectory),
-                        targetBuildDirectory.getAbsolutePath());
+                        targetBuildDirectory.getAbsolutePath(), getParallelism(), isSummaryOnly(),
+                        targetBuildJsonDirectory.getAbsolutePath());
+                if (isIncremental()) {
+                    rep.setReportCache(new ReportCache(
+                        new File(build.getParent().getRootDir(), "testng-reports-with-handlebars-cache")));
+                }
 
                 boolean featuresResult = rep.writeReportsOnDisk();
+                recordTrend(build, rep, listener);
+                // the passed tests are dropped from the models in summary only mode, their durations with them
+                if (!isSummaryOnly()) {
+                    recordDurations(build, rep, listener);
+                }
                 if (featuresResult) {
                     result = Result.SUCCESS;
                 } else {
@@ -169,6 +227,33 @@ public class TestNGTestReportPublisher extends Publisher implements SimpleBuildS
         build.setResult(result);
     }
 
+    private static void recordTrend(Run<?, ?> build, TestNgReportBuilder rep, TaskListener listener) {
+        AllTestNgReports totals = rep.getOverview();
+        TrendIndex.record(build, "testng-reports-with-handlebars", new TrendIndex.Entry(build, totals.getTotalTests(),
+            totals.getTotalPassed(), totals.getTotalFailed(), totals.getTotalSkipped(), totals.getTotalTime()),
+            listener);
+    }
+
+    private static void recordDurations(Run<?, ?> build, TestNgReportBuilder rep, TaskListener listener) {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (TestngResultsModel results : rep.getProcessedTestNgReports()) {
+            for (SuiteModel suite : results.getSuites()) {
+                for (TestModel test : suite.getTests()) {
+                    for (ClassModel cm : test.getClasses()) {
+                        // the signature holds the hash of the test instance, the method name is stable
+                        for (TestMethodModel method : cm.getTestMethods()) {
+                            if (!method.getIsConfig()) {
+                                durations.merge(test.getName() + " / " + cm.getName() + "." + method.getName(),
+                                    method.getDurationMs(), Long::sum);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        DurationHistory.record(build, "testng-reports-with-handlebars", durations, listener);
+    }
+
     @Override public void perform(@Nonnull Run<?, ?> run, @Nonnull FilePath workspace, @Nonnull Launcher launcher,
         @Nonnull TaskListener listener) throws InterruptedException, IOException {
         listener.getLogger().println("[TestNGReportPublisher] searching for files ...");
@@ -181,6 +266,7 @@ public class TestNGTestReportPublisher extends Publisher implements SimpleBuildS
             TestNGTestReportBaseAction.ICON_LOCATON,
             TestNGTestReportBaseAction.DISPLAY_NAME);
         run.addAction(caa);
+        caa.printScanStatistics(listener);
     }
 
     @Override
@@ -193,6 +279,13 @@ public class TestNGTestReportPublisher extends Publisher implements SimpleBuildS
         return new TestNGTestReportProjectAction(project);
     }
 
+    @Override
+    public Collection<? extends Action> getProjectActions(AbstractProject<?, ?> project) {
+        return Arrays.asList(getProjectAction(project),
+            new SlowestTestsAction(project, "testng-reports-with-handlebars", "Slowest TestNG tests",
+                TestNGTestReportBaseAction.ICON_LOCATON));
+    }
+
     @Extension
     public static class DescriptorImpl extends TestNGTestReportBuildStepDescriptor {
     }
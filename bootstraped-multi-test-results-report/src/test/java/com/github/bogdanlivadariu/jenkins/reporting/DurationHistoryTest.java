@@ -0,0 +1,208 @@
+package com.github.bogdanlivadariu.jenkins.reporting;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DurationHistoryTest {
+
+    private File keysFile;
+
+    private File samplesFile;
+
+    private File indexFile;
+
+    @BeforeEach
+    public void setUp(@TempDir File tempDir) {
+        keysFile = new File(tempDir, "reports-durations.keys");
+        samplesFile = new File(tempDir, "reports-durations.bin");
+        indexFile = new File(tempDir, "reports-durations.idx");
+    }
+
+    private static Map<String, Long> durations(Object... namesAndMillis) {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndMillis.length; i += 2) {
+            durations.put((String) namesAndMillis[i], ((Number) namesAndMillis[i + 1]).longValue());
+        }
+        return durations;
+    }
+
+    private void update(int build, Map<String, Long> durations, int samples) throws IOException {
+        DurationHistory.update(keysFile, samplesFile, indexFile, build, durations, samples, 100);
+    }
+
+    private DurationHistory.Test test(String name) throws IOException {
+        for (DurationHistory.Test test : DurationHistory.read(keysFile, samplesFile)) {
+            if (test.getName().equals(name)) {
+                return test;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void roundTripTest() throws IOException {
+        assertTrue(DurationHistory.read(keysFile, samplesFile).isEmpty(), "a missing history is not empty");
+
+        update(1, durations("first", 10, "second", 100), 3);
+        update(2, durations("second", 300, "third", 5), 3);
+        update(3, durations("first", 30, "second", 200), 3);
+        update(4, durations("second", 400), 3);
+
+        List<DurationHistory.Test> tests = DurationHistory.read(keysFile, samplesFile);
+        assertEquals(3, tests.size(), "tests are missing");
+        assertEquals("first", tests.get(0).getName(), "the tests are not in the order they were first seen");
+        assertEquals("second", tests.get(1).getName(), "the tests are not in the order they were first seen");
+        assertEquals("third", tests.get(2).getName(), "the tests are not in the order they were first seen");
+
+        DurationHistory.Test first = tests.get(0);
+        assertEquals(3, first.getLastBuild());
+        assertEquals(2, first.getRuns());
+        assertEquals(30, first.getLastMillis());
+        assertEquals(10, first.getBaselineMillis());
+
+        // the ring only keeps the last three durations of the second test
+        DurationHistory.Test second = tests.get(1);
+        assertEquals(4, second.getLastBuild());
+        assertEquals(3, second.getRuns());
+        assertEquals(400, second.getLastMillis());
+        assertEquals(300, second.getMedianMillis());
+        assertEquals(200, second.getBaselineMillis());
+        assertEquals(200, second.getIncreaseMillis());
+    }
+
+    @Test
+    public void manyTestsTest() throws IOException {
+        // enough tests to grow the index a few times, in one build and then a few at a time
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            durations.put("test " + i, (long) i);
+        }
+        update(1, durations, 5);
+        for (int i = 1000; i < 1200; i++) {
+            update(2, durations("test " + i, i), 5);
+        }
+        durations.replaceAll((name, millis) -> millis + 1);
+        update(3, durations, 5);
+
+        List<DurationHistory.Test> tests = DurationHistory.read(keysFile, samplesFile);
+        assertEquals(1200, tests.size(), "a test was recorded twice or lost");
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("test " + i, tests.get(i).getName());
+            assertEquals(2, tests.get(i).getRuns(), "a test was not found in the index");
+            assertEquals(i + 1, tests.get(i).getLastMillis());
+        }
+        assertEquals(1, tests.get(1100).getRuns());
+        assertEquals(2, tests.get(1100).getLastBuild());
+    }
+
+    @Test
+    public void truncatedKeyTest() throws IOException {
+        update(1, durations("first", 10, "second", 20), 5);
+        // a crash in the middle of the append of the keys
+        try (RandomAccessFile raf = new RandomAccessFile(keysFile, "rw")) {
+            raf.setLength(raf.length() - 2);
+        }
+        assertEquals(1, DurationHistory.read(keysFile, samplesFile).size(), "the truncated key was read");
+
+        update(2, durations("first", 30, "second", 40, "third", 50), 5);
+        List<DurationHistory.Test> tests = DurationHistory.read(keysFile, samplesFile);
+        assertEquals(3, tests.size(), "the truncated key was not replaced");
+        assertEquals(2, test("first").getRuns(), "the durations of a complete key were lost");
+        assertEquals(1, test("second").getRuns(), "the slot of the truncated key was not written again");
+        assertEquals(40, test("second").getLastMillis());
+        assertEquals(50, test("third").getLastMillis());
+    }
+
+    @Test
+    public void missingIndexTest() throws IOException {
+        update(1, durations("first", 10, "second", 20), 5);
+        assertTrue(indexFile.delete());
+
+        update(2, durations("second", 30), 5);
+        assertEquals(2, DurationHistory.read(keysFile, samplesFile).size(), "a known test was added again");
+        assertEquals(2, test("second").getRuns(), "the index was not rebuilt from the keys");
+    }
+
+    @Test
+    public void republishedBuildTest() throws IOException {
+        update(1, durations("first", 10), 5);
+        update(2, durations("first", 20), 5);
+        update(2, durations("first", 25), 5);
+
+        DurationHistory.Test first = test("first");
+        assertEquals(2, first.getRuns(), "a republished build was counted twice");
+        assertEquals(25, first.getLastMillis(), "the last durations of a build were not kept");
+        assertEquals(10, first.getBaselineMillis());
+    }
+
+    @Test
+    public void changedSamplesTest() throws IOException {
+        for (int build = 1; build <= 4; build++) {
+            update(build, durations("first", build * 10), 3);
+        }
+        assertEquals(3, test("first").getRuns());
+
+        // the history is converted before the build is recorded, the last three durations are kept
+        update(5, durations("first", 50), 5);
+        DurationHistory.Test first = test("first");
+        assertEquals(4, first.getRuns(), "the durations were not kept when the samples changed");
+        assertEquals(50, first.getLastMillis());
+        assertEquals(30, first.getBaselineMillis());
+        update(6, durations("first", 60), 5);
+        assertEquals(5, test("first").getRuns(), "the new number of samples was not applied");
+
+        update(7, durations("first", 70), 2);
+        first = test("first");
+        assertEquals(2, first.getRuns(), "the durations were not cut to the new number of samples");
+        assertEquals(70, first.getLastMillis());
+        assertEquals(60, first.getBaselineMillis());
+    }
+
+    @Test
+    public void compactionTest() throws IOException {
+        DurationHistory.update(keysFile, samplesFile, indexFile, 1, durations("kept", 10, "dropped", 20), 5, 3);
+        DurationHistory.update(keysFile, samplesFile, indexFile, 2, durations("kept", 11), 5, 3);
+        long uncompacted = samplesFile.length();
+        DurationHistory.update(keysFile, samplesFile, indexFile, 4, durations("kept", 12, "new", 30), 5, 3);
+
+        List<DurationHistory.Test> tests = DurationHistory.read(keysFile, samplesFile);
+        assertEquals(2, tests.size(), "a test that did not run for a while was kept");
+        assertEquals("kept", tests.get(0).getName());
+        assertEquals(3, tests.get(0).getRuns(), "the durations of a running test were lost");
+        assertEquals("new", tests.get(1).getName());
+        assertEquals(uncompacted, samplesFile.length(), "the slot of the dropped test was kept");
+
+        DurationHistory.update(keysFile, samplesFile, indexFile, 5, durations("new", 31, "dropped", 21), 5, 3);
+        assertEquals(2, test("new").getRuns(), "the index was not rebuilt after the compaction");
+        assertEquals(1, test("dropped").getRuns(), "a dropped test kept its durations");
+    }
+
+    @Test
+    public void interruptedCompactionTest() throws IOException {
+        for (int build = 1; build <= 3; build++) {
+            update(build, durations("first", build), 3);
+        }
+        File keysBefore = new File(keysFile.getPath() + ".before");
+        Files.copy(keysFile.toPath(), keysBefore.toPath());
+        update(4, durations("first", 4), 5);
+        // a crash after the samples were replaced and before the keys were
+        Files.move(keysBefore.toPath(), keysFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        assertTrue(DurationHistory.read(keysFile, samplesFile).isEmpty(), "mismatched files were read");
+
+        update(5, durations("first", 5), 5);
+        assertEquals(1, test("first").getRuns(), "a new history was not started");
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.bogdanlivadariu.jenkins.reporting;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrendIndexTest {
+
+    private static TrendIndex.Entry entry(int number, int passed, int failed) {
+        return new TrendIndex.Entry(number, 1000L * number, passed + failed + 1, passed, failed, 1, 10L * number);
+    }
+
+    @Test
+    public void roundTripTest(@TempDir File tempDir) throws IOException {
+        File file = new File(tempDir, "reports-trend.bin");
+        assertTrue(TrendIndex.read(file, 10).isEmpty(), "a missing index is not empty");
+
+        for (int number = 1; number <= 5; number++) {
+            TrendIndex.append(file, entry(number, number, 5 - number));
+        }
+        List<TrendIndex.Entry> entries = TrendIndex.read(file, 10);
+        assertEquals(5, entries.size(), "builds are missing");
+        TrendIndex.Entry third = entries.get(2);
+        assertEquals(3, third.getNumber());
+        assertEquals(3000L, third.getTimestamp());
+        assertEquals(6, third.getTotal());
+        assertEquals(3, third.getPassed());
+        assertEquals(2, third.getFailed());
+        assertEquals(1, third.getSkipped());
+        assertEquals(30L, third.getDurationMillis());
+
+        List<TrendIndex.Entry> last = TrendIndex.read(file, 2);
+        assertEquals(2, last.size(), "the limit was not applied");
+        assertEquals(4, last.get(0).getNumber(), "the last builds were not read");
+        assertEquals(5, last.get(1).getNumber(), "the last builds were not read");
+    }
+
+    @Test
+    public void truncatedRecordTest(@TempDir File tempDir) throws IOException {
+        File file = new File(tempDir, "reports-trend.bin");
+        TrendIndex.append(file, entry(1, 1, 0));
+        TrendIndex.append(file, entry(2, 2, 0));
+        // a crash in the middle of an append
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 5);
+        }
+        assertEquals(1, TrendIndex.read(file, 10).size(), "the truncated record was read");
+
+        TrendIndex.append(file, entry(3, 3, 0));
+        List<TrendIndex.Entry> entries = TrendIndex.read(file, 10);
+        assertEquals(2, entries.size(), "the truncated record was not overwritten");
+        assertEquals(3, entries.get(1).getNumber());
+        assertEquals(3, entries.get(1).getPassed());
+    }
+
+    @Test
+    public void republishedBuildTest(@TempDir File tempDir) throws IOException {
+        File file = new File(tempDir, "reports-trend.bin");
+        TrendIndex.append(file, entry(1, 1, 0));
+        TrendIndex.append(file, entry(3, 3, 0));
+        TrendIndex.append(file, entry(2, 2, 0));
+        TrendIndex.append(file, entry(3, 0, 7));
+
+        List<TrendIndex.Entry> entries = TrendIndex.read(file, 10);
+        assertEquals(3, entries.size(), "a republished build is counted twice");
+        assertEquals(1, entries.get(0).getNumber());
+        assertEquals(2, entries.get(1).getNumber(), "the builds are not in build order");
+        assertEquals(3, entries.get(2).getNumber());
+        assertEquals(7, entries.get(2).getFailed(), "the last totals of a build were not kept");
+    }
+
+    @Test
+    public void notAnIndexTest(@TempDir File tempDir) throws IOException {
+        File file = new File(tempDir, "reports-trend.bin");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.writeLong(42L);
+        }
+        assertThrows(IOException.class, () -> TrendIndex.read(file, 10));
+        assertThrows(IOException.class, () -> TrendIndex.append(file, entry(1, 1, 0)));
+    }
+}
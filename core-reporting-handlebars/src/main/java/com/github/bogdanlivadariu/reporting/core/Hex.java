@@ -0,0 +1,25 @@
+package com.github.bogdanlivadariu.reporting.core;
+
+/**
+ * Lower case hex encoding of the digests the report file names and cache keys are made of.
+ */
+public final class Hex {
+
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+    private Hex() {
+    }
+
+    /**
+     * @param bytes the bytes to encode
+     * @return two lower case hex digits per byte, most significant nibble first
+     */
+    public static String encode(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = DIGITS[(bytes[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = DIGITS[bytes[i] & 0xf];
+        }
+        return new String(hex);
+    }
+}
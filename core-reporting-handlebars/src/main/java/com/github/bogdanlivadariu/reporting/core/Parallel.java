@@ -0,0 +1,199 @@
+package com.github.bogdanlivadariu.reporting.core;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs report processing stages on a bounded pool of worker threads while keeping the results in input order, so a
+ * parallel run produces exactly the same output as a serial one.
+ */
+public final class Parallel {
+
+    /**
+     * Upper bound of the worker threads shared by all the stages of all the builders of the JVM. When every worker is
+     * busy, the calling threads process the items themselves.
+     */
+    private static final int MAX_WORKERS = Math.max(8, 4 * Runtime.getRuntime().availableProcessors());
+
+    private static final AtomicInteger WORKER_COUNT = new AtomicInteger();
+
+    /* the worker threads are created on demand and exit after a minute without work */
+    private static final ThreadPoolExecutor WORKERS = new ThreadPoolExecutor(0, MAX_WORKERS, 60L, TimeUnit.SECONDS,
+        new SynchronousQueue<>(), Parallel::newWorker, new ThreadPoolExecutor.CallerRunsPolicy());
+
+    private Parallel() {
+    }
+
+    private static Thread newWorker(Runnable runnable) {
+        Thread worker = new Thread(runnable, "Parallel report worker " + WORKER_COUNT.incrementAndGet());
+        worker.setDaemon(true);
+        return worker;
+    }
+
+    /**
+     * Applies the task to every item and returns the results in the order of the items.
+     *
+     * @param items the items to process
+     * @param parallelism the maximum number of threads, the caller included, a value lower than 2 runs the task on
+     * the caller thread
+     * @param task the work to run for every item
+     * @param <T> the item type
+     * @param <R> the result type
+     * @return the results, index aligned with the items
+     * @throws IOException if the task failed for any of the items
+     */
+    public static <T, R> List<R> map(List<T> items, int parallelism, Task<T, R> task) throws IOException {
+        List<R> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+        Throwable[] failures = process(items.size(), parallelism, true,
+            index -> results.set(index, task.apply(items.get(index))));
+        for (Throwable failure : failures) {
+            if (failure != null) {
+                throw unwrap(failure);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Applies the task to every item. A failing item does not stop the others, all the failures are collected and
+     * reported together once every item has been processed.
+     *
+     * @param items the items to process
+     * @param parallelism the maximum number of threads, the caller included, a value lower than 2 runs the task on
+     * the caller thread
+     * @param task the work to run for every item
+     * @param <T> the item type
+     * @throws IOException the first failure, with the other ones attached as suppressed exceptions
+     */
+    public static <T> void forEach(List<T> items, int parallelism, Action<T> task) throws IOException {
+        List<Throwable> failures = new ArrayList<>();
+        for (Throwable failure : process(items.size(), parallelism, false, index -> task.run(items.get(index)))) {
+            if (failure != null) {
+                failures.add(failure);
+            }
+        }
+        if (failures.isEmpty()) {
+            return;
+        }
+        Throwable first = failures.get(0);
+        if (first instanceof Error) {
+            throw (Error) first;
+        }
+        IOException failure = first instanceof IOException
+            ? (IOException) first : new IOException(failures.size() + " item(s) failed to process", first);
+        for (Throwable other : failures.subList(1, failures.size())) {
+            failure.addSuppressed(other);
+        }
+        throw failure;
+    }
+
+    /**
+     * Runs independent steps, with the same failure handling as {@link #forEach(List, int, Action)}.
+     *
+     * @param parallelism the maximum number of worker threads, a value lower than 2 runs the steps on the caller thread
+     * @param steps the steps to run
+     * @throws IOException the first failure, with the other ones attached as suppressed exceptions
+     */
+    public static void run(int parallelism, Step... steps) throws IOException {
+        forEach(Arrays.asList(steps), parallelism, Step::run);
+    }
+
+    /**
+     * Hands the indexes out to the caller and to at most parallelism - 1 pooled workers, then waits for all of them.
+     *
+     * @param failFast whether no more indexes are handed out once an item failed
+     * @return the failures, index aligned with the items, null for the items that succeeded or were not processed
+     */
+    private static Throwable[] process(int size, int parallelism, boolean failFast, IndexAction task)
+        throws InterruptedIOException {
+        Throwable[] failures = new Throwable[size];
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            for (int index = next.getAndIncrement(); index < size; index = next.getAndIncrement()) {
+                try {
+                    task.run(index);
+                } catch (Throwable e) {
+                    failures[index] = e;
+                    if (failFast) {
+                        next.set(size);
+                    }
+                }
+            }
+        };
+        int helpers = Math.max(0, Math.min(parallelism, size) - 1);
+        CountDownLatch done = new CountDownLatch(helpers);
+        for (int i = 0; i < helpers; i++) {
+            WORKERS.execute(() -> {
+                try {
+                    worker.run();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        worker.run();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            next.set(size);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while processing the reports");
+        }
+        return failures;
+    }
+
+    private static IOException unwrap(Throwable cause) {
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IOException(cause);
+    }
+
+    private interface IndexAction {
+        void run(int index) throws Exception;
+    }
+
+    /**
+     * A unit of work that may fail with a checked exception.
+     *
+     * @param <T> the item type
+     * @param <R> the result type
+     */
+    @FunctionalInterface
+    public interface Task<T, R> {
+        R apply(T item) throws Exception;
+    }
+
+    /**
+     * A unit of work without a result that may fail with a checked exception.
+     *
+     * @param <T> the item type
+     */
+    @FunctionalInterface
+    public interface Action<T> {
+        void run(T item) throws Exception;
+    }
+
+    /**
+     * A unit of work without an item nor a result that may fail with a checked exception.
+     */
+    @FunctionalInterface
+    public interface Step {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.bogdanlivadariu.reporting.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the rendered per item pages of previous builds, keyed by the content hash of the report file the item came
+ * from. When a report file did not change between two builds its pages are restored from here instead of being
+ * rendered again.
+ * <p>
+ * The cache is shared by the builds of a job, which may run at the same time. A page is only ever replaced
+ * atomically, and pages are pruned by age rather than by what a single build used, so a build never deletes the
+ * pages another build is restoring.
+ */
+public class ReportCache {
+
+    /**
+     * How long a page is kept in the cache after it was last stored or restored, by default.
+     */
+    public static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private static final String PAGE_SUFFIX = ".html";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+
+    private final long maxAgeMillis;
+
+    /**
+     * @param directory the folder holding the cached pages, it is created on first use
+     */
+    public ReportCache(File directory) {
+        this(directory, DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    /**
+     * @param directory the folder holding the cached pages, it is created on first use
+     * @param maxAgeMillis how long a page is kept after it was last stored or restored
+     */
+    public ReportCache(File directory, long maxAgeMillis) {
+        this.directory = directory;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * @param type a class of the library the pages are rendered by
+     * @return the version of that library followed by the last modification time of the jar or folder it was loaded
+     * from, part of the salt so that no page rendered by an other build of the library, snapshots included, is
+     * restored
+     */
+    public static String libraryVersion(Class<?> type) {
+        Package typePackage = type.getPackage();
+        String version = typePackage == null ? null : typePackage.getImplementationVersion();
+        long lastModified = 0;
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if (codeSource != null && codeSource.getLocation() != null) {
+            try {
+                lastModified = new File(codeSource.getLocation().toURI()).lastModified();
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // not a file, the version alone tells the builds apart
+            }
+        }
+        return version + "@" + lastModified + "\n";
+    }
+
+    /**
+     * @param input the report file
+     * @param salt anything else the rendered pages depend on, e.g. the templates or the report settings
+     * @return the hex encoded SHA-256 of the salt and of the file content
+     * @throws IOException if the file cannot be read
+     */
+    public String key(File input, String salt) throws IOException {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        sha.update(salt.getBytes(StandardCharsets.UTF_8));
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = new FileInputStream(input)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                sha.update(buffer, 0, read);
+            }
+        }
+        byte[] digest = sha.digest();
+        return Hex.encode(digest);
+    }
+
+    /**
+     * @param key the cache key of the page
+     * @param target where the page is expected by the report
+     * @return true if the page was found in the cache and placed at the target location, false if it is missing,
+     * including when it was pruned by another build in the meantime
+     * @throws IOException if the cached page cannot be copied
+     */
+    public boolean restore(String key, File target) throws IOException {
+        Path cached = new File(directory, key + PAGE_SUFFIX).toPath();
+        if (!Files.isRegularFile(cached)) {
+            return false;
+        }
+        Files.createDirectories(target.getParentFile().toPath());
+        try {
+            // touched first, so a prune running from now on keeps the page
+            Files.setLastModifiedTime(cached, FileTime.fromMillis(System.currentTimeMillis()));
+            Files.copy(cached, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param key the cache key of the page
+     * @param page the freshly rendered page
+     * @throws IOException if the page cannot be copied in the cache
+     */
+    public void store(String key, File page) throws IOException {
+        Files.createDirectories(directory.toPath());
+        Path temp = Files.createTempFile(directory.toPath(), key, TEMP_SUFFIX);
+        try {
+            Files.copy(page.toPath(), temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, new File(directory, key + PAGE_SUFFIX).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Deletes the cached pages that were neither stored nor restored for longer than the maximum age, and the
+     * leftovers of interrupted stores.
+     */
+    public void prune() {
+        File[] cachedFiles =
+            directory.listFiles((dir, name) -> name.endsWith(PAGE_SUFFIX) || name.endsWith(TEMP_SUFFIX));
+        if (cachedFiles == null) {
+            return;
+        }
+        long oldest = System.currentTimeMillis() - maxAgeMillis;
+        for (File cachedFile : cachedFiles) {
+            long lastModified = cachedFile.lastModified();
+            // 0 when the file was deleted meanwhile
+            if (lastModified != 0 && lastModified < oldest) {
+                cachedFile.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.bogdanlivadariu.reporting.core;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Identifiers of the report items, derived from where an item was read instead of drawn at random. Regenerating the
+ * same reports gives the same page names and element ids, which keeps page URLs stable and pages comparable between
+ * builds.
+ */
+public final class StableIds {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private StableIds() {
+    }
+
+    /**
+     * @param source the report the item was read from, relative to the folder holding the reports
+     * @param index the position of the item in the report
+     * @return the 64 bit FNV-1a hash of the source and of the index, as 16 hex digits
+     */
+    public static String of(String source, int index) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : (source + "#" + index).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        String hex = Long.toHexString(hash);
+        return "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    /**
+     * @param parentId the id of the item holding the child
+     * @param index the position of the child in its parent
+     * @return the id of the child, unique as long as the parent id is
+     */
+    public static String child(String parentId, int index) {
+        return parentId + "-" + index;
+    }
+
+    /**
+     * @return a process wide sequential id, for items that are not read from a report file
+     * @deprecated the id depends on what the process built before, derive the id from where the item was read with
+     * {@link #of(String, int)}
+     */
+    @Deprecated
+    public static String next() {
+        return "id" + SEQUENCE.incrementAndGet();
+    }
+
+    /**
+     * @param reports the paths of the reports
+     * @return the paths of the reports relative to the deepest folder holding all of them, index aligned
+     */
+    public static List<String> sources(List<String> reports) {
+        return sources(reports, null);
+    }
+
+    /**
+     * The deepest common folder moves when reports are added or removed, the folder the reports are collected from
+     * does not, which keeps the ids of the items of the other reports.
+     *
+     * @param reports the paths of the reports
+     * @param reportsDirectory the folder the reports were collected from, null for the deepest folder holding all of
+     * them
+     * @return the paths of the reports relative to that folder, index aligned, a report outside of it keeps its
+     * absolute path
+     */
+    public static List<String> sources(List<String> reports, String reportsDirectory) {
+        List<Path> paths = new ArrayList<>(reports.size());
+        for (String report : reports) {
+            paths.add(Paths.get(report).toAbsolutePath().normalize());
+        }
+        Path base;
+        if (reportsDirectory != null) {
+            base = Paths.get(reportsDirectory).toAbsolutePath().normalize();
+        } else {
+            base = paths.isEmpty() ? null : paths.get(0).getParent();
+            for (Path path : paths) {
+                while (base != null && !path.startsWith(base)) {
+                    base = base.getParent();
+                }
+            }
+        }
+        List<String> sources = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            Path source = base == null || !path.startsWith(base) ? path : base.relativize(path);
+            sources.add(source.toString().replace('\\', '/'));
+        }
+        return sources;
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.bogdanlivadariu.reporting.core;
+
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.cache.ConcurrentMapTemplateCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of the compiled report templates. Every template, together with the partials it includes, is compiled once
+ * and then shared by all the threads rendering pages, so a report builder keeps a single registry per JVM.
+ */
+public final class TemplateRegistry {
+
+    private static final Pattern PARTIAL = Pattern.compile("\\{\\{#?>\\s*([^\\s}]+)");
+
+    private final Handlebars handlebars;
+
+    private final ConcurrentMap<String, Template> templates = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, String> sources = new ConcurrentHashMap<>();
+
+    /**
+     * @param handlebars the handlebars instance with the helpers of the report registered
+     */
+    public TemplateRegistry(Handlebars handlebars) {
+        this.handlebars = handlebars.with(new ConcurrentMapTemplateCache());
+    }
+
+    /**
+     * @param location the template location, e.g. junit-reporting/testOverviewReport
+     * @return the compiled template, compiled on first use
+     * @throws IOException if the template cannot be found or compiled
+     */
+    public Template get(String location) throws IOException {
+        Template template = templates.get(location);
+        if (template == null) {
+            Template compiled = handlebars.compile(location);
+            template = templates.putIfAbsent(location, compiled);
+            if (template == null) {
+                template = compiled;
+            }
+        }
+        return template;
+    }
+
+    /**
+     * @param location the template location, e.g. junit-reporting/testOverviewReport
+     * @return the source of the template followed by the sources of all the partials it includes, directly or
+     * through other partials, so anything that changes the pages rendered with the template changes it too
+     * @throws IOException if the template or one of its partials cannot be found
+     */
+    public String source(String location) throws IOException {
+        String source = sources.get(location);
+        if (source == null) {
+            StringBuilder text = new StringBuilder();
+            Set<String> seen = new HashSet<>();
+            Deque<String> pending = new ArrayDeque<>();
+            pending.add(location);
+            while (!pending.isEmpty()) {
+                String next = pending.poll();
+                if (!seen.add(next)) {
+                    continue;
+                }
+                String content = handlebars.getLoader().sourceAt(next).content(handlebars.getCharset());
+                text.append(next).append('\n').append(content).append('\n');
+                Matcher partial = PARTIAL.matcher(content);
+                while (partial.find()) {
+                    pending.add(partial.group(1));
+                }
+            }
+            source = text.toString();
+            sources.putIfAbsent(location, source);
+        }
+        return source;
+    }
+
+    /**
+     * Renders the model straight into the page through a buffered writer, so a page is never held in memory as a
+     * whole.
+     *
+     * @param template the compiled template
+     * @param model the context the template is applied to
+     * @param page the page to write, its parent folders are created if needed
+     * @throws IOException if the page cannot be written
+     */
+    public static void render(Template template, Object model, File page) throws IOException {
+        Files.createDirectories(page.getAbsoluteFile().getParentFile().toPath());
+        try (Writer writer = Files.newBufferedWriter(page.toPath(), StandardCharsets.UTF_8)) {
+            template.apply(model, writer);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.bogdanlivadariu.reporting.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HexTest {
+
+    @Test
+    public void encodeTest() {
+        assertEquals("", Hex.encode(new byte[0]));
+        assertEquals("00017f80ff", Hex.encode(new byte[] {0, 1, 127, -128, -1}),
+            "the bytes are not encoded as two lower case digits each");
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.bogdanlivadariu.reporting.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelTest {
+
+    private static final List<Integer> ITEMS = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+    @Test
+    public void mapKeepsTheOrderTest() throws IOException {
+        Set<Thread> workers = ConcurrentHashMap.newKeySet();
+        List<Integer> doubled = Parallel.map(ITEMS, 4, item -> {
+            workers.add(Thread.currentThread());
+            return item * 2;
+        });
+        assertEquals(ITEMS.stream().map(item -> item * 2).collect(Collectors.toList()), doubled,
+            "the results are not in the order of the items");
+        for (Thread worker : workers) {
+            assertTrue(worker == Thread.currentThread() || worker.isDaemon(), "a worker thread is not a daemon");
+        }
+    }
+
+    @Test
+    public void forEachCollectsAllTheFailuresTest() {
+        List<Integer> processed = new ArrayList<>();
+        IOException failure = assertThrows(IOException.class, () -> Parallel.forEach(ITEMS, 4, item -> {
+            if (item % 10 == 0) {
+                throw new IOException("item " + item);
+            }
+            synchronized (processed) {
+                processed.add(item);
+            }
+        }));
+        assertEquals("item 0", failure.getMessage(), "the first failure is not the one of the first item");
+        assertEquals(9, failure.getSuppressed().length, "a failure was lost");
+        assertEquals(90, processed.size(), "a failure stopped the other items");
+    }
+
+    @Test
+    public void nestedStagesTest() throws IOException {
+        // every outer item runs an inner stage, more than the shared workers could run at the same time
+        List<Integer> sums = Parallel.map(ITEMS, 100, item -> Parallel.map(ITEMS, 100, inner -> inner).stream()
+            .mapToInt(Integer::intValue).sum() + item);
+        assertEquals(4950 + 99, sums.get(99).intValue());
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.bogdanlivadariu.reporting.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReportCacheTest {
+
+    private static File page(File dir, String name, String content) throws IOException {
+        File page = new File(dir, name);
+        Files.write(page.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return page;
+    }
+
+    @Test
+    public void restoreTest(@TempDir File tempDir) throws IOException {
+        ReportCache cache = new ReportCache(new File(tempDir, "cache"));
+        File report = page(tempDir, "report.xml", "<testsuite/>");
+        String key = cache.key(report, "salt");
+        assertFalse(key.equals(cache.key(report, "other salt")), "the salt is not part of the key");
+
+        File target = new File(tempDir, "pages/page.html");
+        assertFalse(cache.restore(key, target), "a missing page was restored");
+        cache.store(key, page(tempDir, "rendered.html", "page"));
+        assertTrue(cache.restore(key, target), "a stored page was not restored");
+        assertEquals("page", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void pruneTest(@TempDir File tempDir) throws IOException {
+        File cacheDir = new File(tempDir, "cache");
+        ReportCache cache = new ReportCache(cacheDir, TimeUnit.HOURS.toMillis(1));
+        cache.store("old", page(tempDir, "old.html", "old"));
+        cache.store("restored", page(tempDir, "restored.html", "restored"));
+        cache.store("recent", page(tempDir, "recent.html", "recent"));
+        long twoHoursAgo = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2);
+        assertTrue(new File(cacheDir, "old.html").setLastModified(twoHoursAgo));
+        assertTrue(new File(cacheDir, "restored.html").setLastModified(twoHoursAgo));
+
+        // a page restored by another build is kept, whatever that build stored or not
+        assertTrue(new ReportCache(cacheDir).restore("restored", new File(tempDir, "target.html")));
+        cache.prune();
+
+        assertFalse(new File(cacheDir, "old.html").exists(), "an expired page was kept");
+        assertTrue(new File(cacheDir, "restored.html").exists(), "a page in use was pruned");
+        assertTrue(new File(cacheDir, "recent.html").exists(), "a recent page was pruned");
+    }
+}
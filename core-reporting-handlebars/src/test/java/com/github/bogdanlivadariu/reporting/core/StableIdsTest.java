@@ -0,0 +1,46 @@
+package com.github.bogdanlivadariu.reporting.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class StableIdsTest {
+
+    @Test
+    public void ofTest() {
+        assertEquals(StableIds.of("a/report.xml", 1), StableIds.of("a/report.xml", 1), "the id is not stable");
+        assertNotEquals(StableIds.of("a/report.xml", 1), StableIds.of("a/report.xml", 2), "the index is not hashed");
+        assertEquals(16, StableIds.of("a/report.xml", 1).length(), "the id is not 16 hex digits");
+        assertEquals("parent-3", StableIds.child("parent", 3));
+    }
+
+    @Test
+    public void sourcesRelativeToTheReportsDirectoryTest(@TempDir File reportsDirectory) {
+        String first = new File(reportsDirectory, "a/first.xml").getPath();
+        String second = new File(reportsDirectory, "b/second.xml").getPath();
+
+        // the deepest common folder moves up when a report of an other folder is added
+        assertEquals(Collections.singletonList("first.xml"), StableIds.sources(Collections.singletonList(first)));
+        assertEquals(Arrays.asList("a/first.xml", "b/second.xml"), StableIds.sources(Arrays.asList(first, second)));
+
+        List<String> alone = StableIds.sources(Collections.singletonList(first), reportsDirectory.getPath());
+        List<String> both = StableIds.sources(Arrays.asList(first, second), reportsDirectory.getPath());
+        assertEquals(Collections.singletonList("a/first.xml"), alone);
+        assertEquals(Arrays.asList("a/first.xml", "b/second.xml"), both);
+    }
+
+    @Test
+    public void sourcesOutsideOfTheReportsDirectoryTest(@TempDir File tempDir) {
+        File outside = new File(tempDir, "outside.xml");
+        List<String> sources = StableIds.sources(Collections.singletonList(outside.getPath()),
+            new File(tempDir, "reports").getPath());
+        assertEquals(outside.getAbsolutePath().replace('\\', '/'), sources.get(0));
+    }
+}
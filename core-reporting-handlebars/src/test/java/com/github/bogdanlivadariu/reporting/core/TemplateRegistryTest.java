@@ -0,0 +1,38 @@
+package com.github.bogdanlivadariu.reporting.core;
+
+import com.github.jknack.handlebars.Handlebars;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TemplateRegistryTest {
+
+    private final TemplateRegistry registry = new TemplateRegistry(new Handlebars());
+
+    @Test
+    public void renderTest(@TempDir File tempDir) throws IOException {
+        assertSame(registry.get("registry-test/page"), registry.get("registry-test/page"),
+            "the template was compiled twice");
+
+        File page = new File(tempDir, "pages/page.html");
+        TemplateRegistry.render(registry.get("registry-test/page"), new Object(), page);
+        assertEquals("<html><footer>v1\n</footer>\n</html>\n",
+            new String(Files.readAllBytes(page.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void sourceIncludesNestedPartialsTest() throws IOException {
+        String source = registry.source("registry-test/page");
+        assertTrue(source.contains("<html>"), "the template is missing");
+        assertTrue(source.contains("<footer>"), "the partial is missing");
+        assertTrue(source.contains("v1"), "the nested partial is missing");
+    }
+}
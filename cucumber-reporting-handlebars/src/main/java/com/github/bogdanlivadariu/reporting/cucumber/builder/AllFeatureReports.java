@@ -16,21 +16,21 @@ public class AllFeatureReports {
 
     private List<Feature> features;
 
-    private Integer scenariosTotal = 0;
+    private int scenariosTotal = 0;
 
-    private Integer scenariosTotalPassed = 0;
+    private int scenariosTotalPassed = 0;
 
-    private Integer scenariosTotalFailed = 0;
+    private int scenariosTotalFailed = 0;
 
-    private Integer stepsTotal = 0;
+    private int stepsTotal = 0;
 
-    private Integer stepsTotalPassed = 0;
+    private int stepsTotalPassed = 0;
 
-    private Integer stepsTotalFailed = 0;
+    private int stepsTotalFailed = 0;
 
-    private Integer stepsTotalSkipped = 0;
+    private int stepsTotalSkipped = 0;
 
-    private Integer stepsTotalUndefined = 0;
+    private int stepsTotalUndefined = 0;
 
     private long totalDuration;
 
@@ -40,7 +40,7 @@ public class AllFeatureReports {
         this.features = features;
         this.pageTitle = pageTitle;
         for (Feature feature : this.features) {
-            scenariosTotal += feature.getElements().length;
+            scenariosTotal += feature.getScenariosCount();
             scenariosTotalPassed += feature.getScenariosPassedCount();
             scenariosTotalFailed += feature.getScenariosFailedCount();
 
@@ -62,39 +62,66 @@ public class AllFeatureReports {
         }
     }
 
+    /**
+     * Sums the aggregates of reports that together hold the features, instead of going over the features again.
+     *
+     * @param pageTitle the title of the page
+     * @param features the features of all the parts
+     * @param parts the aggregated parts of the features
+     */
+    AllFeatureReports(String pageTitle, List<Feature> features, AllFeatureReports... parts) {
+        this.features = features;
+        this.pageTitle = pageTitle;
+        for (AllFeatureReports part : parts) {
+            scenariosTotal += part.scenariosTotal;
+            scenariosTotalPassed += part.scenariosTotalPassed;
+            scenariosTotalFailed += part.scenariosTotalFailed;
+
+            stepsTotal += part.stepsTotal;
+            stepsTotalPassed += part.stepsTotalPassed;
+            stepsTotalFailed += part.stepsTotalFailed;
+            stepsTotalSkipped += part.stepsTotalSkipped;
+            stepsTotalUndefined += part.stepsTotalUndefined;
+
+            totalDuration += part.totalDuration;
+
+            allTags.addAll(part.allTags);
+        }
+    }
+
     public List<Feature> getFeatures() {
         return features;
     }
 
-    public Integer getScenariosTotal() {
+    public int getScenariosTotal() {
         return scenariosTotal;
     }
 
-    public Integer getScenariosTotalPassed() {
+    public int getScenariosTotalPassed() {
         return scenariosTotalPassed;
     }
 
-    public Integer getScenariosTotalFailed() {
+    public int getScenariosTotalFailed() {
         return scenariosTotalFailed;
     }
 
-    public Integer getStepsTotal() {
+    public int getStepsTotal() {
         return stepsTotal;
     }
 
-    public Integer getStepsTotalPassed() {
+    public int getStepsTotalPassed() {
         return stepsTotalPassed;
     }
 
-    public Integer getStepsTotalFailed() {
+    public int getStepsTotalFailed() {
         return stepsTotalFailed;
     }
 
-    public Integer getStepsTotalSkipped() {
+    public int getStepsTotalSkipped() {
         return stepsTotalSkipped;
     }
 
-    public Integer getStepsTotalUndefined() {
+    public int getStepsTotalUndefined() {
         return stepsTotalUndefined;
     }
 
@@ -102,7 +129,7 @@ public class AllFeatureReports {
         return totalDuration;
     }
 
-    public Integer getFeaturesCount() {
+    public int getFeaturesCount() {
         return features.size();
     }
 
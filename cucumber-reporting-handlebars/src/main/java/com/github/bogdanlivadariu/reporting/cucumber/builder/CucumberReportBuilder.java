@@ -1,8 +1,14 @@
 package com.github.bogdanlivadariu.reporting.cucumber.builder;
 
+import com.github.bogdanlivadariu.reporting.core.Parallel;
+import com.github.bogdanlivadariu.reporting.core.ReportCache;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
+import com.github.bogdanlivadariu.reporting.core.TemplateRegistry;
 import com.github.bogdanlivadariu.reporting.cucumber.helpers.Constants;
+import com.github.bogdanlivadariu.reporting.cucumber.helpers.EmbeddingExtractor;
 import com.github.bogdanlivadariu.reporting.cucumber.helpers.Helpers;
 import com.github.bogdanlivadariu.reporting.cucumber.helpers.SpecialProperties;
+import com.github.bogdanlivadariu.reporting.cucumber.helpers.SpecialProperties.SpecialKeyProperties;
 import com.github.bogdanlivadariu.reporting.cucumber.json.models.Feature;
 import com.github.bogdanlivadariu.reporting.cucumber.json.models.Tag;
 import com.github.jknack.handlebars.Handlebars;
@@ -10,15 +16,18 @@ import com.github.jknack.handlebars.Template;
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
+import com.google.gson.stream.JsonReader;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.Map.Entry;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.github.bogdanlivadariu.reporting.cucumber.helpers.Constants.*;
 
@@ -34,6 +43,10 @@ public class CucumberReportBuilder {
 
     private static final String FEATURE_OVERVIEW_REPORT = "cucumber-reporting/featureOverviewReport";
 
+    /* the feature templates, compiled once per JVM with the cucumber helpers registered */
+    private static final TemplateRegistry TEMPLATES =
+        new TemplateRegistry(new Helpers(new Handlebars()).registerHelpers());
+
     private final String FEATURE_TAG_REPORT;
 
     private final String REPORTS_SUMMARY_PATH;
@@ -42,137 +55,271 @@ public class CucumberReportBuilder {
 
     private Gson gs = new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES).create();
 
-    private Handlebars bars = new Helpers(new Handlebars()).registerHelpers();
-
     private List<Feature> processedFeatures = null;
 
+    private final int parallelism;
+
+    private final List<String> jsonReports;
+
+    private final String cacheSalt;
+
+    private List<List<Feature>> featuresPerReport;
+
+    private final StatusIndex statusIndex;
+
+    private final EmbeddingExtractor embeddingExtractor;
+
+    private final boolean summaryOnly;
+
+    private ReportCache reportCache;
+
     public CucumberReportBuilder(List<String> jsonReports, String targetBuildPath, SpecialProperties props)
         throws IOException {
+        this(jsonReports, targetBuildPath, props, 1);
+    }
+
+    /**
+     * @param jsonReports the cucumber json reports to process
+     * @param targetBuildPath the folder where the html reports will be written
+     * @param props special properties used while post processing the features
+     * @param parallelism the maximum number of reports parsed, and of pages rendered, at the same time
+     * @throws IOException if any of the reports cannot be read
+     */
+    public CucumberReportBuilder(List<String> jsonReports, String targetBuildPath, SpecialProperties props,
+        int parallelism) throws IOException {
+        this(jsonReports, targetBuildPath, props, parallelism, false);
+    }
+
+    /**
+     * In the summary-only mode every feature page is written as soon as its feature is read, after which the feature
+     * keeps only its counters and its failed scenarios. The incremental mode does not apply to the feature pages then.
+     *
+     * @param jsonReports the cucumber json reports to process
+     * @param targetBuildPath the folder where the html reports will be written
+     * @param props special properties used while post processing the features
+     * @param parallelism the maximum number of reports parsed, and of pages rendered, at the same time
+     * @param summaryOnly whether the passed scenarios are dropped once their feature page is written
+     * @throws IOException if any of the reports cannot be read or a feature page cannot be written
+     */
+    public CucumberReportBuilder(List<String> jsonReports, String targetBuildPath, SpecialProperties props,
+        int parallelism, boolean summaryOnly) throws IOException {
+        this(jsonReports, targetBuildPath, props, parallelism, summaryOnly, null);
+    }
+
+    /**
+     * Same as the constructor without the reports directory, with the page names and element ids derived from the
+     * paths of the reports relative to that directory, so they do not change when reports are added or removed.
+     *
+     * @param jsonReports the cucumber json reports to process
+     * @param targetBuildPath the folder where the html reports will be written
+     * @param props special properties used while post processing the features
+     * @param parallelism the maximum number of reports parsed, and of pages rendered, at the same time
+     * @param summaryOnly whether the passed scenarios are dropped once their feature page is written
+     * @param reportsDirectory the folder the reports were collected from, null for the deepest folder holding all of
+     * them
+     * @throws IOException if any of the reports cannot be read or a feature page cannot be written
+     */
+    public CucumberReportBuilder(List<String> jsonReports, String targetBuildPath, SpecialProperties props,
+        int parallelism, boolean summaryOnly, String reportsDirectory) throws IOException {
         REPORTS_SUMMARY_PATH = targetBuildPath + "/feature-reports/";
 
         REPORTS_OVERVIEW_PATH = targetBuildPath + "/";
         FEATURE_TAG_REPORT = targetBuildPath + "/tag-reports/";
-        processedFeatures = prepareData(jsonReports, props);
+        embeddingExtractor =
+            new EmbeddingExtractor(new File(REPORTS_SUMMARY_PATH + EmbeddingExtractor.EMBEDDINGS_FOLDER));
+        this.parallelism = parallelism;
+        this.jsonReports = new ArrayList<>(jsonReports);
+        this.summaryOnly = summaryOnly;
+        this.cacheSalt = "ignoreUndefinedSteps=" + props.getPropertyValue(SpecialKeyProperties.IGNORE_UNDEFINED_STEPS);
+        processedFeatures = prepareData(jsonReports, props, parallelism, reportsDirectory);
+        statusIndex = new StatusIndex(processedFeatures);
     }
 
     public List<Feature> getProcessedFeatures() {
         return processedFeatures;
     }
 
-    private void writeFeatureSummaryReports() throws IOException {
-        Template template = bars.compile(FEATURE_SUMMARY_REPORT);
-        for (Feature feature : getProcessedFeatures()) {
-            String generatedFeatureHtmlContent = template.apply(feature);
-            // generatedFeatureSummaryReports.put(feature.getUniqueID(), generatedFeatureHtmlContent);
-            FileUtils.writeStringToFile(new File(REPORTS_SUMMARY_PATH + feature.getUniqueID() + ".html"),
-                generatedFeatureHtmlContent, StandardCharsets.UTF_8);
-        }
+    /**
+     * @return the totals of all the features, computed once when the reports were read
+     */
+    public AllFeatureReports getOverview() {
+        return statusIndex.getOverview();
     }
 
-    private void writeFeatureOverviewReport() throws IOException {
-        Template template = bars.compile(FEATURE_OVERVIEW_REPORT);
-        AllFeatureReports allFeatures = new AllFeatureReports(FEATURES_OVERVIEW, getProcessedFeatures());
-        FileUtils.writeStringToFile(new File(REPORTS_OVERVIEW_PATH + FEATURES_OVERVIEW_HTML),
-            template.apply(allFeatures), StandardCharsets.UTF_8);
+    /**
+     * Enables the incremental mode: feature pages of report files that did not change since the previous build are
+     * restored from the cache instead of being rendered again. Overview and tag pages are always rendered.
+     *
+     * @param reportCache the cache shared by the builds of the job
+     */
+    public void setReportCache(ReportCache reportCache) {
+        this.reportCache = reportCache;
     }
 
-    private void writeFeaturePassedReport() throws IOException {
-        Template template = bars.compile(FEATURE_OVERVIEW_REPORT);
+    private File featurePage(Feature feature) {
+        return new File(REPORTS_SUMMARY_PATH + feature.getUniqueID() + ".html");
+    }
 
-        List<Feature> onlyPassed = new ArrayList<>(getProcessedFeatures());
-        onlyPassed.removeIf(f -> f.getOverallStatus().equalsIgnoreCase(Constants.FAILED));
+    void writeFeatureSummaryReports() throws IOException {
+        if (summaryOnly) {
+            // the feature pages were written while the reports were read
+            return;
+        }
+        Template template = TEMPLATES.get(FEATURE_SUMMARY_REPORT);
+        Map<Feature, String> cacheKeys = pageCacheKeys(FEATURE_SUMMARY_REPORT);
+        // the compiled template is shared by all the workers, every page is rendered and written independently
+        Parallel.forEach(getProcessedFeatures(), parallelism, feature -> {
+            File page = featurePage(feature);
+            String cacheKey = cacheKeys.get(feature);
+            if (cacheKey != null && reportCache.restore(cacheKey, page)) {
+                return;
+            }
+            TemplateRegistry.render(template, feature, page);
+            if (cacheKey != null) {
+                reportCache.store(cacheKey, page);
+            }
+        });
+    }
+
+    /**
+     * @param location the location of the template the pages are rendered with
+     * @return the cache key of every feature page, made of the content hash of the report the feature was read from
+     * and of the position of the feature in that report, empty when the incremental mode is off
+     * @throws IOException if any of the reports cannot be read
+     */
+    private Map<Feature, String> pageCacheKeys(String location) throws IOException {
+        Map<Feature, String> cacheKeys = new IdentityHashMap<>();
+        if (reportCache == null) {
+            return cacheKeys;
+        }
+        String salt =
+            cacheSalt + ReportCache.libraryVersion(CucumberReportBuilder.class) + TEMPLATES.source(location);
+        List<String> reportKeys =
+            Parallel.map(jsonReports, parallelism, jsonReport -> reportCache.key(new File(jsonReport), salt));
+        for (int report = 0; report < reportKeys.size(); report++) {
+            List<Feature> features = featuresPerReport.get(report);
+            for (int index = 0; index < features.size(); index++) {
+                cacheKeys.put(features.get(index), reportKeys.get(report) + "-" + index);
+            }
+        }
+        return cacheKeys;
+    }
 
-        AllFeatureReports allFeatures = new AllFeatureReports(FEATURES_PASSED_OVERVIEW, onlyPassed);
-        FileUtils.writeStringToFile(new File(REPORTS_OVERVIEW_PATH + FEATURES_PASSED_HTML),
-            template.apply(allFeatures), StandardCharsets.UTF_8);
+    void writeFeatureOverviewReport() throws IOException {
+        Template template = TEMPLATES.get(FEATURE_OVERVIEW_REPORT);
+        TemplateRegistry.render(template, statusIndex.getOverview(),
+            new File(REPORTS_OVERVIEW_PATH + FEATURES_OVERVIEW_HTML));
     }
 
-    private void writeFeatureFailedReport() throws IOException {
-        Template template = bars.compile(FEATURE_OVERVIEW_REPORT);
+    void writeFeaturePassedReport() throws IOException {
+        Template template = TEMPLATES.get(FEATURE_OVERVIEW_REPORT);
+        TemplateRegistry.render(template, statusIndex.getPassed(),
+            new File(REPORTS_OVERVIEW_PATH + FEATURES_PASSED_HTML));
+    }
 
-        List<Feature> onlyFailed = new ArrayList<>(getProcessedFeatures());
-        onlyFailed.removeIf(f -> f.getOverallStatus().equalsIgnoreCase(Constants.PASSED));
-        AllFeatureReports allFeatures = new AllFeatureReports(FEATURES_FAILED_OVERVIEW, onlyFailed);
-        FileUtils.writeStringToFile(new File(REPORTS_OVERVIEW_PATH + FEATURES_FAILED_HTML),
-            template.apply(allFeatures), StandardCharsets.UTF_8);
+    void writeFeatureFailedReport() throws IOException {
+        Template template = TEMPLATES.get(FEATURE_OVERVIEW_REPORT);
+        TemplateRegistry.render(template, statusIndex.getFailed(),
+            new File(REPORTS_OVERVIEW_PATH + FEATURES_FAILED_HTML));
     }
 
-    private void writeFeatureTagsReport() throws IOException {
+    void writeFeatureTagsReport() throws IOException {
+        // index the features by tag in a single pass, then render every tag page exactly once
         LinkedHashMap<String, List<Feature>> allTags = new LinkedHashMap<>();
         for (Feature feature : getProcessedFeatures()) {
             // move the outputFileLocation one folder up for all the features that will be built
             feature.setOutputFileLocation("../" + feature.getOutputFileLocation());
             // put the tags in the proper place
             if (feature.getTags().length < 1) {
-                if (allTags.containsKey(Constants.UNTAGGED)) {
-                    allTags.get(Constants.UNTAGGED).add(feature);
-                } else {
-                    List<Feature> tagFeatures = new ArrayList<Feature>();
-                    tagFeatures.add(feature);
-                    allTags.put(Constants.UNTAGGED, tagFeatures);
-                }
+                allTags.computeIfAbsent(Constants.UNTAGGED, tagName -> new ArrayList<>()).add(feature);
                 continue;
             }
             for (Tag tag : feature.getTags()) {
-                String tagName = tag.getName();
-                if (allTags.containsKey(tagName)) {
-                    allTags.get(tagName).add(feature);
-                } else {
-                    List<Feature> tagFeatures = new ArrayList<Feature>();
-                    tagFeatures.add(feature);
-                    allTags.put(tagName, tagFeatures);
-                }
-            }
-            Template template = bars.compile(FEATURE_OVERVIEW_REPORT);
-
-            for (Entry<String, List<Feature>> entry : allTags.entrySet()) {
-                AllFeatureReports specificTagFeatures =
-                    new AllFeatureReports(entry.getKey(), entry.getValue());
-                FileUtils.writeStringToFile(new File(FEATURE_TAG_REPORT + entry.getKey() + ".html"),
-                    template.apply(specificTagFeatures), StandardCharsets.UTF_8);
+                allTags.computeIfAbsent(tag.getName(), tagName -> new ArrayList<>()).add(feature);
             }
         }
+
+        Template template = TEMPLATES.get(FEATURE_OVERVIEW_REPORT);
+        Parallel.forEach(new ArrayList<>(allTags.entrySet()), parallelism, entry -> {
+            AllFeatureReports specificTagFeatures =
+                new AllFeatureReports(entry.getKey(), entry.getValue());
+            TemplateRegistry.render(template, specificTagFeatures,
+                new File(FEATURE_TAG_REPORT + entry.getKey() + ".html"));
+        });
     }
 
-    private List<Feature> prepareData(List<String> jsonReports, SpecialProperties props) throws IOException {
+    private List<Feature> prepareData(List<String> jsonReports, SpecialProperties props, int parallelism,
+        String reportsDirectory) throws IOException {
         Comparator<Feature> featureNameComparator = (first, second) -> first.getName().compareToIgnoreCase(second.getName());
 
-        List<Feature> processedFeaturesLocal = new ArrayList<>();
-        for (String jsonReport : jsonReports) {
-            File jsonFileReport = new File(jsonReport);
-            FileInputStream fis = new FileInputStream(jsonFileReport);
-            String gson = IOUtils.toString(fis, StandardCharsets.UTF_8);
-            fis.close();
-
-            if (gson.isEmpty()) {
-                continue;
-            }
-            Feature[] features = gs.fromJson(gson, Feature[].class);
-
-            for (Feature feature : features) {
-                processedFeaturesLocal.add(feature.postProcess(props));
-            }
+        List<String> sources = StableIds.sources(jsonReports, reportsDirectory);
+        List<Integer> reports = IntStream.range(0, jsonReports.size()).boxed().collect(Collectors.toList());
+        featuresPerReport = Parallel.map(reports, parallelism, report -> {
+            List<Feature> features = new ArrayList<>();
+            readFeatures(new File(jsonReports.get(report)), sources.get(report), props, features::add);
+            return features;
+        });
 
+        List<Feature> processedFeaturesLocal = new ArrayList<>();
+        for (List<Feature> features : featuresPerReport) {
+            processedFeaturesLocal.addAll(features);
         }
         processedFeaturesLocal.sort(featureNameComparator);
         return processedFeaturesLocal;
     }
 
+    /**
+     * Streams the features of a cucumber json report one at a time, so only the feature currently being bound is
+     * held in memory next to the ones already handed to the consumer. The embeddings of every feature are written to
+     * disk before it is handed over, so their encoded data does not stay in memory. In the summary-only mode the
+     * feature page is written before the feature is handed over too.
+     *
+     * @param jsonFileReport the cucumber json report, an array of features
+     * @param source the report path the feature ids are derived from
+     * @param props special properties used while post processing each feature
+     * @param consumer receives every post processed feature, in file order
+     * @throws IOException if the report cannot be read or is not a valid cucumber json report, or if its embeddings
+     * or feature pages cannot be written
+     */
+    private void readFeatures(File jsonFileReport, String source, SpecialProperties props,
+        Consumer<Feature> consumer) throws IOException {
+        if (jsonFileReport.length() == 0) {
+            return;
+        }
+        try (JsonReader reader = new JsonReader(new InputStreamReader(
+            new BufferedInputStream(new FileInputStream(jsonFileReport)), StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            int index = 0;
+            while (reader.hasNext()) {
+                Feature feature = gs.fromJson(reader, Feature.class);
+                feature.postProcess(props, StableIds.of(source, index++));
+                embeddingExtractor.extract(feature);
+                if (summaryOnly) {
+                    TemplateRegistry.render(TEMPLATES.get(FEATURE_SUMMARY_REPORT), feature,
+                        featurePage(feature));
+                    feature.retainFailures();
+                }
+                consumer.accept(feature);
+            }
+            reader.endArray();
+        }
+    }
+
     /**
      * @return true if all the features have passed, false if at least one has failed.
      * @throws IOException if the reports cannot be written on disk
      */
     public boolean writeReportsOnDisk() throws IOException {
         writeFeatureSummaryReports();
-        writeFeatureOverviewReport();
-        writeFeaturePassedReport();
-        writeFeatureFailedReport();
+        // the overview pages only read the status index, the tag pages are written after them as they move the
+        // feature page locations one folder up
+        Parallel.run(parallelism, this::writeFeatureOverviewReport, this::writeFeaturePassedReport,
+            this::writeFeatureFailedReport);
         writeFeatureTagsReport();
-        for (Feature feature : getProcessedFeatures()) {
-            if (feature.getOverallStatus().equalsIgnoreCase(Constants.FAILED)) {
-                return false;
-            }
+        // the summary-only mode neither stores nor restores pages, the cache is left for the incremental builds
+        if (reportCache != null && !summaryOnly) {
+            reportCache.prune();
         }
-        return getProcessedFeatures().size() > 0;
+        return statusIndex.getFailed().getFeatures().isEmpty() && getProcessedFeatures().size() > 0;
     }
 }
@@ -0,0 +1,56 @@
+package com.github.bogdanlivadariu.reporting.cucumber.builder;
+
+import com.github.bogdanlivadariu.reporting.cucumber.helpers.Constants;
+import com.github.bogdanlivadariu.reporting.cucumber.json.models.Feature;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.bogdanlivadariu.reporting.cucumber.helpers.Constants.FEATURES_FAILED_OVERVIEW;
+import static com.github.bogdanlivadariu.reporting.cucumber.helpers.Constants.FEATURES_OVERVIEW;
+import static com.github.bogdanlivadariu.reporting.cucumber.helpers.Constants.FEATURES_PASSED_OVERVIEW;
+
+/**
+ * Models of the featuresOverview, featuresPassed and featuresFailed pages. The features are sorted by overall status
+ * once, and the overview totals are summed from the passed and failed halves.
+ */
+final class StatusIndex {
+
+    private final AllFeatureReports overview;
+
+    private final AllFeatureReports passed;
+
+    private final AllFeatureReports failed;
+
+    /**
+     * @param features the processed features, in the order of the overview page
+     */
+    StatusIndex(List<Feature> features) {
+        List<Feature> passedFeatures = new ArrayList<>();
+        List<Feature> failedFeatures = new ArrayList<>();
+        for (Feature feature : features) {
+            if (Constants.FAILED.equalsIgnoreCase(feature.getOverallStatus())) {
+                failedFeatures.add(feature);
+            } else {
+                passedFeatures.add(feature);
+            }
+        }
+        passed = new AllFeatureReports(FEATURES_PASSED_OVERVIEW, Collections.unmodifiableList(passedFeatures));
+        failed = new AllFeatureReports(FEATURES_FAILED_OVERVIEW, Collections.unmodifiableList(failedFeatures));
+        overview = new AllFeatureReports(FEATURES_OVERVIEW, Collections.unmodifiableList(new ArrayList<>(features)),
+            passed, failed);
+    }
+
+    AllFeatureReports getOverview() {
+        return overview;
+    }
+
+    AllFeatureReports getPassed() {
+        return passed;
+    }
+
+    AllFeatureReports getFailed() {
+        return failed;
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.bogdanlivadariu.reporting.cucumber.helpers;
+
+import com.github.bogdanlivadariu.reporting.core.Hex;
+import com.github.bogdanlivadariu.reporting.cucumber.json.models.Element;
+import com.github.bogdanlivadariu.reporting.cucumber.json.models.Embedding;
+import com.github.bogdanlivadariu.reporting.cucumber.json.models.Feature;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Writes the embeddings of the features next to the feature pages, named after the SHA-256 of their decoded content,
+ * so the pages link to them instead of inlining the base64 data and an embedding attached many times is stored once.
+ * Only raster images keep an extension of their own, anything else is written as a .bin file: the reports are served
+ * from the Jenkins origin, an attached html or svg page must be downloaded rather than rendered there.
+ */
+public class EmbeddingExtractor {
+
+    /**
+     * Folder of the extracted embeddings, relative to the feature pages.
+     */
+    public static final String EMBEDDINGS_FOLDER = "embeddings";
+
+    private static final String BINARY = "bin";
+
+    private static final Pattern LINE_BREAKS = Pattern.compile("[\\r\\n]");
+
+    private static final Map<String, String> IMAGES = new HashMap<>();
+
+    static {
+        IMAGES.put("image/png", "png");
+        IMAGES.put("image/jpeg", "jpg");
+        IMAGES.put("image/jpg", "jpg");
+        IMAGES.put("image/gif", "gif");
+        IMAGES.put("image/bmp", "bmp");
+        IMAGES.put("image/webp", "webp");
+    }
+
+    private final File directory;
+
+    /**
+     * @param directory the folder the embeddings are written to, it is created on first use
+     */
+    public EmbeddingExtractor(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Extracts all the embeddings of the feature, once it has been post processed.
+     *
+     * @param feature the feature
+     * @throws IOException if an embedding cannot be written
+     */
+    public void extract(Feature feature) throws IOException {
+        for (Element element : feature.getElements()) {
+            for (Embedding embedding : element.getEmbeddings()) {
+                extract(embedding);
+            }
+        }
+    }
+
+    private void extract(Embedding embedding) throws IOException {
+        if (embedding.getData() == null) {
+            return;
+        }
+        byte[] content;
+        try {
+            // line breaks are allowed as in mime encoded data, the mime decoder would skip any other character too
+            content = Base64.getDecoder().decode(LINE_BREAKS.matcher(embedding.getData()).replaceAll(""));
+        } catch (IllegalArgumentException e) {
+            // some formatters attach text as it is, keep it that way
+            content = embedding.getData().getBytes(StandardCharsets.UTF_8);
+        }
+        String name = sha256(content) + "." + extension(embedding.getMimeType());
+        Path target = new File(directory, name).toPath();
+        if (!Files.isRegularFile(target)) {
+            // concurrent writers of the same embedding write the same bytes, the last move wins
+            Files.createDirectories(directory.toPath());
+            Path temp = Files.createTempFile(directory.toPath(), name, ".tmp");
+            try {
+                Files.write(temp, content);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        embedding.externalize(EMBEDDINGS_FOLDER + "/" + name);
+    }
+
+    /**
+     * @param mimeType the mime type of an embedding, may be null
+     * @return true if the embedding is extracted as an image the pages may show inline
+     */
+    public static boolean isImage(String mimeType) {
+        return !BINARY.equals(extension(mimeType));
+    }
+
+    private static String extension(String mimeType) {
+        if (mimeType == null) {
+            return BINARY;
+        }
+        String type = mimeType.toLowerCase();
+        int parameters = type.indexOf(';');
+        if (parameters >= 0) {
+            type = type.substring(0, parameters).trim();
+        }
+        return IMAGES.getOrDefault(type, BINARY);
+    }
+
+    private static String sha256(byte[] content) throws IOException {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        byte[] digest = sha.digest(content);
+        return Hex.encode(digest);
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.bogdanlivadariu.reporting.cucumber.helpers;
 
+import com.github.bogdanlivadariu.reporting.core.StableIds;
 import com.github.bogdanlivadariu.reporting.cucumber.json.models.Row;
 import com.github.bogdanlivadariu.reporting.cucumber.json.models.StepRow;
 import com.github.jknack.handlebars.Handlebars;
@@ -10,6 +11,7 @@ import org.joda.time.format.PeriodFormatterBuilder;
 
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.function.Function;
 
 public class Helpers {
     private final Handlebars handlebar;
@@ -50,10 +52,14 @@ public class Helpers {
 
     private Helper<String> embeddingHelper() {
         return (arg0, arg1) -> {
+            if (arg0 == null) {
+                return "";
+            }
+            // arg0 is the location of the extracted embedding, relative to the feature page
             String toReturn;
-            String id = UUID.randomUUID().toString();
             int index = arg1.param(1);
-            if (arg1.param(0).toString().contains("image")) {
+            String id = StableIds.child(arg1.param(2) + "-embedding", index);
+            if (EmbeddingExtractor.isImage(arg1.param(0))) {
                 toReturn =
                         "<button 'type='button'"
                                 + "class='btn btn-primary'"
@@ -73,14 +79,15 @@ public class Helpers {
                                 + "    <div class='modal-content'>"
                                 + "      <div class='modal-body'>"
                                 + "        <img "
-                                + "        src='data:image/png;base64," + arg0 + "'"
+                                + "        src='" + arg0 + "'"
+                                + "        loading='lazy'"
                                 + "        class='img-responsive'>"
                                 + "      </div>"
                                 + "    </div>"
                                 + "  </div>"
                                 + "</div>";
             } else {
-                toReturn = "<pre>" + arg0 + "</pre>";
+                toReturn = "<a href='" + arg0 + "' download>Attachment " + ++index + "</a>";
             }
             return toReturn;
         };
@@ -124,66 +131,84 @@ public class Helpers {
     }
 
     private Helper<List<StepRow>> doTableHelperForStep() {
-        return (rows, arg1) -> {
-            String tableContent = "<table  class='table table-condensed table-hover'>";
-            int indexRow = 0;
-            for (StepRow row : rows) {
-                indexRow++;
-                if (indexRow == 1) {
-                    tableContent += "<thead><tr>";
-                } else if (indexRow == 2) {
-                    tableContent += "<tbody><tr>";
-                } else {
-                    tableContent += "<tr>";
-                }
-                for (String cell : row.getCells()) {
-                    if (indexRow == 1) {
-                        tableContent += "<th>" + cell + "</th>";
-                    } else {
-                        tableContent += "<td>" + cell + "</td>";
-                    }
-                }
-                if (indexRow == 1) {
-                    tableContent += "</tr></thead>";
-                } else {
-                    tableContent += "</tr>";
-                }
-            }
-            tableContent += "</tbody></table>";
-            return tableContent;
-        };
+        return (rows, arg1) -> table(rows, StepRow::getCells);
     }
 
-
     private Helper<List<Row>> doTableHelper() {
-        return (rows, arg1) -> {
-            String tableContent = "<table  class='table table-condensed table-hover'>";
-            int indexRow = 0;
-            for (Row row : rows) {
-                indexRow++;
-                if (indexRow == 1) {
-                    tableContent += "<thead><tr>";
-                } else if (indexRow == 2) {
-                    tableContent += "<tbody><tr>";
-                } else {
-                    tableContent += "<tr>";
-                }
-                for (String cell : row.getCells()) {
-                    if (indexRow == 1) {
-                        tableContent += "<th>" + cell + "</th>";
-                    } else {
-                        tableContent += "<td>" + cell + "</td>";
-                    }
-                }
-                if (indexRow == 1) {
-                    tableContent += "</tr></thead>";
-                } else {
-                    tableContent += "</tr>";
-                }
+        return (rows, arg1) -> table(rows, Row::getCells);
+    }
+
+    /**
+     * Renders the rows as a table whose first row is the header, in a single builder sized for the whole table.
+     */
+    private static <R> CharSequence table(List<R> rows, Function<R, String[]> cellsOf) {
+        StringBuilder tableContent = new StringBuilder(64 + rows.size() * 64);
+        tableContent.append("<table  class='table table-condensed table-hover'>");
+        int indexRow = 0;
+        for (R row : rows) {
+            indexRow++;
+            if (indexRow == 1) {
+                tableContent.append("<thead><tr>");
+            } else if (indexRow == 2) {
+                tableContent.append("<tbody><tr>");
+            } else {
+                tableContent.append("<tr>");
             }
-            tableContent += "</tbody></table>";
-            return tableContent;
-        };
+            for (String cell : cellsOf.apply(row)) {
+                tableContent.append(indexRow == 1 ? "<th>" : "<td>");
+                appendEscaped(tableContent, cell);
+                tableContent.append(indexRow == 1 ? "</th>" : "</td>");
+            }
+            if (indexRow == 1) {
+                tableContent.append("</tr></thead>");
+            } else {
+                tableContent.append("</tr>");
+            }
+        }
+        tableContent.append("</tbody></table>");
+        return tableContent;
+    }
+
+    /**
+     * Appends the text HTML escaped the same way as Handlebars escapes expressions, copying the runs of characters
+     * that need no escaping as they are.
+     */
+    private static void appendEscaped(StringBuilder out, String text) {
+        if (text == null) {
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String entity;
+            switch (text.charAt(i)) {
+                case '&':
+                    entity = "&amp;";
+                    break;
+                case '<':
+                    entity = "&lt;";
+                    break;
+                case '>':
+                    entity = "&gt;";
+                    break;
+                case '"':
+                    entity = "&quot;";
+                    break;
+                case '\'':
+                    entity = "&#x27;";
+                    break;
+                case '`':
+                    entity = "&#x60;";
+                    break;
+                case '=':
+                    entity = "&#x3D;";
+                    break;
+                default:
+                    continue;
+            }
+            out.append(text, start, i).append(entity);
+            start = i + 1;
+        }
+        out.append(text, start, text.length());
     }
 
     private CharSequence checkState(String arg0, String retValue1, String retValue2, String retValue3,
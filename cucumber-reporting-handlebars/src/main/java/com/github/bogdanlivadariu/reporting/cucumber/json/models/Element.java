@@ -6,7 +6,6 @@ import com.github.bogdanlivadariu.reporting.cucumber.helpers.SpecialProperties.S
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.UUID;
 
 import static com.github.bogdanlivadariu.reporting.cucumber.helpers.Constants.*;
 
@@ -39,20 +38,24 @@ public class Element {
 
     private String overallStatus = PASSED;
 
-    private Integer stepsPassedCount = 0;
+    private int stepsPassedCount = 0;
 
-    private Integer stepsFailedCount = 0;
+    private int stepsFailedCount = 0;
 
-    private Integer stepsSkippedCount = 0;
+    private int stepsSkippedCount = 0;
 
-    private Integer stepsUndefinedCount = 0;
+    private int stepsUndefinedCount = 0;
 
     private String uniqueID;
 
     private List<Embedding> embeddings = new ArrayList<>();
 
-    public void postProcess(SpecialProperties props) {
-        uniqueID = UUID.randomUUID().toString();
+    /**
+     * @param props special properties used while counting the steps
+     * @param uniqueID the id of the scenario, unique within its feature page
+     */
+    public void postProcess(SpecialProperties props, String uniqueID) {
+        this.uniqueID = uniqueID;
         List<String> stepStatuses = new ArrayList<>();
         if (steps != null) {
 
@@ -169,30 +172,24 @@ public class Element {
         return after != null ? after : new Step[0];
     }
 
-    public Integer getStepsSkippedCount() {
+    public int getStepsSkippedCount() {
         return stepsSkippedCount;
     }
 
-    public Integer getStepsUndefinedCount() {
+    public int getStepsUndefinedCount() {
         return stepsUndefinedCount;
     }
 
-    public Integer getStepsFailedCount() {
+    public int getStepsFailedCount() {
         return stepsFailedCount;
     }
 
-    public Integer getStepsPassedCount() {
+    public int getStepsPassedCount() {
         return stepsPassedCount;
     }
 
-    public Integer getStepsTotalCount() {
-        Integer stepTotalCount = 0;
-        try {
-            stepTotalCount = steps.length;
-        } catch (Exception e) {
-            stepTotalCount = 0;
-        }
-        return stepTotalCount;
+    public int getStepsTotalCount() {
+        return steps == null ? 0 : steps.length;
     }
 
     public String getUniqueID() {
@@ -9,6 +9,8 @@ public class Embedding {
 
     private String data;
 
+    private transient String file;
+
     public String getMimeType() {
         return mimeType;
     }
@@ -16,4 +18,21 @@ public class Embedding {
     public String getData() {
         return data;
     }
+
+    /**
+     * @return the location of the extracted embedding relative to the feature page, null until it is extracted
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Records where the decoded embedding was written and drops the encoded data, which is not needed anymore.
+     *
+     * @param file the location of the extracted embedding relative to the feature page
+     */
+    public void externalize(String file) {
+        this.file = file;
+        this.data = null;
+    }
 }
@@ -3,11 +3,12 @@ package com.github.bogdanlivadariu.reporting.cucumber.json.models;
 import static com.github.bogdanlivadariu.reporting.cucumber.helpers.Constants.FAILED;
 import static com.github.bogdanlivadariu.reporting.cucumber.helpers.Constants.PASSED;
 
-import java.util.UUID;
-
+import com.github.bogdanlivadariu.reporting.core.StableIds;
 import com.github.bogdanlivadariu.reporting.cucumber.helpers.Constants;
 import com.github.bogdanlivadariu.reporting.cucumber.helpers.SpecialProperties;
 
+import java.util.Arrays;
+
 /**
  * Represents a Feature.
  */
@@ -37,19 +38,19 @@ public class Feature {
 
     private String overallStatus = PASSED;
 
-    private Integer scenariosPassedCount = 0;
+    private int scenariosPassedCount = 0;
 
-    private Integer scenariosFailedCount = 0;
+    private int scenariosFailedCount = 0;
 
-    private Integer stepsTotalCount = 0;
+    private int stepsTotalCount = 0;
 
-    private Integer stepsPassedCount = 0;
+    private int stepsPassedCount = 0;
 
-    private Integer stepsFailedCount = 0;
+    private int stepsFailedCount = 0;
 
-    private Integer stepsSkippedCount = 0;
+    private int stepsSkippedCount = 0;
 
-    private Integer stepsUndefinedCount = 0;
+    private int stepsUndefinedCount = 0;
 
     private String outputFileLocation;
 
@@ -61,12 +62,28 @@ public class Feature {
         this.outputFileLocation = outputFileLocation;
     }
 
+    /**
+     * @deprecated the id is drawn from a process wide counter and changes between builds, pass an id derived
+     * from the report with {@link StableIds#of(String, int)} to {@link #postProcess(SpecialProperties, String)}
+     * instead
+     */
+    @Deprecated
     public Feature postProcess(SpecialProperties props) {
+        return postProcess(props, StableIds.next());
+    }
+
+    /**
+     * @param props special properties used while post processing the scenarios
+     * @param uniqueID the id of the feature, it names the feature page
+     * @return this feature
+     */
+    public Feature postProcess(SpecialProperties props, String uniqueID) {
         pageTitle = Constants.FEATURE_SUMMARY_REPORT;
-        uniqueID = UUID.randomUUID().toString();
+        this.uniqueID = uniqueID;
         outputFileLocation = "feature-reports/" + uniqueID + ".html";
-        for (Element el : elements) {
-            el.postProcess(props);
+        for (int index = 0; index < elements.length; index++) {
+            Element el = elements[index];
+            el.postProcess(props, StableIds.child(uniqueID, index));
             totalDuration += el.getTotalDuration();
             stepsTotalCount += el.getStepsTotalCount();
             stepsPassedCount += el.getStepsPassedCount();
@@ -87,8 +104,15 @@ public class Feature {
         return this;
     }
 
-    public Integer getScenariosCount() {
-        return elements.length;
+    /**
+     * Drops the passed scenarios, once the feature page is written. The counters and the failed scenarios are kept.
+     */
+    public void retainFailures() {
+        elements = Arrays.stream(elements).filter(el -> !PASSED.equals(el.getOverallStatus())).toArray(Element[]::new);
+    }
+
+    public int getScenariosCount() {
+        return scenariosPassedCount + scenariosFailedCount;
     }
 
     public String getId() {
@@ -123,27 +147,27 @@ public class Feature {
         return elements;
     }
 
-    public Integer getStepsSkippedCount() {
+    public int getStepsSkippedCount() {
         return stepsSkippedCount;
     }
 
-    public Integer getStepsUndefinedCount() {
+    public int getStepsUndefinedCount() {
         return stepsUndefinedCount;
     }
 
-    public Integer getStepsFailedCount() {
+    public int getStepsFailedCount() {
         return stepsFailedCount;
     }
 
-    public Integer getStepsPassedCount() {
+    public int getStepsPassedCount() {
         return stepsPassedCount;
     }
 
-    public Integer getScenariosFailedCount() {
+    public int getScenariosFailedCount() {
         return scenariosFailedCount;
     }
 
-    public Integer getStepsTotalCount() {
+    public int getStepsTotalCount() {
         return stepsTotalCount;
     }
 
@@ -151,7 +175,7 @@ public class Feature {
         return totalDuration;
     }
 
-    public Integer getScenariosPassedCount() {
+    public int getScenariosPassedCount() {
         return scenariosPassedCount;
     }
 
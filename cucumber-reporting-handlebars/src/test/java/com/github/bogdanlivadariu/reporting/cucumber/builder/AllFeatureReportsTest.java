@@ -1,20 +1,28 @@
 package com.github.bogdanlivadariu.reporting.cucumber.builder;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
+import com.github.bogdanlivadariu.reporting.cucumber.helpers.Constants;
 import com.github.bogdanlivadariu.reporting.cucumber.helpers.SpecialProperties;
 import com.github.bogdanlivadariu.reporting.cucumber.json.models.Element;
+import com.github.bogdanlivadariu.reporting.cucumber.json.models.Embedding;
 import com.github.bogdanlivadariu.reporting.cucumber.json.models.Feature;
 import com.github.bogdanlivadariu.reporting.cucumber.json.models.Step;
 import com.github.bogdanlivadariu.reporting.cucumber.json.models.Tag;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class AllFeatureReportsTest {
 
@@ -23,7 +31,7 @@ public class AllFeatureReportsTest {
     private AllFeatureReports reports;
 
     @BeforeEach
-    public void setUp() throws IOException {
+    public void setUp(@TempDir File outputDir) throws IOException {
         List<String> jsonReports = new ArrayList<>();
 
         String firstReport = AllFeatureReportsTest.class.getResource("/result.json").getPath();
@@ -32,7 +40,7 @@ public class AllFeatureReportsTest {
         jsonReports.add(firstReport);
         jsonReports.add(secondReport);
 
-        builder = new CucumberReportBuilder(jsonReports, "output", new SpecialProperties());
+        builder = new CucumberReportBuilder(jsonReports, outputDir.getAbsolutePath(), new SpecialProperties());
         reports = new AllFeatureReports("title", builder.getProcessedFeatures());
     }
 
@@ -89,6 +97,22 @@ public class AllFeatureReportsTest {
         assertEquals(Integer.valueOf(0), reports.getStepsTotalUndefined());
     }
 
+    @Test
+    public void statusIndexTest() {
+        StatusIndex index = new StatusIndex(builder.getProcessedFeatures());
+        AllFeatureReports overview = index.getOverview();
+        assertEquals(reports.getFeatures(), overview.getFeatures());
+        assertEquals(reports.getScenariosTotal(), overview.getScenariosTotal());
+        assertEquals(reports.getStepsTotalPassed(), overview.getStepsTotalPassed());
+        assertEquals(reports.getTotalDuration(), overview.getTotalDuration());
+        assertEquals(reports.getAllTags(), overview.getAllTags());
+        assertEquals(reports.getFeatures().size(),
+            index.getPassed().getFeatures().size() + index.getFailed().getFeatures().size());
+        for (Feature feature : index.getFailed().getFeatures()) {
+            assertEquals(Constants.FAILED, feature.getOverallStatus());
+        }
+    }
+
     @Test
     public void totalDurationTest() {
         long duration = Long.parseLong("239323852509");
@@ -127,4 +151,54 @@ public class AllFeatureReportsTest {
     public void builderShouldFail() throws IOException {
         assertFalse(builder.writeReportsOnDisk());
     }
+
+    @Test
+    public void tagReportsTest(@TempDir File outputDir) throws IOException {
+        List<String> jsonReports = new ArrayList<>();
+        jsonReports.add(AllFeatureReportsTest.class.getResource("/result.json").getPath());
+        jsonReports.add(AllFeatureReportsTest.class.getResource("/cucumber.json").getPath());
+
+        CucumberReportBuilder tagsBuilder =
+            new CucumberReportBuilder(jsonReports, outputDir.getAbsolutePath(), new SpecialProperties(), 4);
+        tagsBuilder.writeReportsOnDisk();
+
+        Set<String> expectedPages = new TreeSet<>();
+        for (Feature f : tagsBuilder.getProcessedFeatures()) {
+            if (f.getTags().length < 1) {
+                expectedPages.add(Constants.UNTAGGED + ".html");
+            }
+            for (Tag t : f.getTags()) {
+                expectedPages.add(t.getName() + ".html");
+            }
+        }
+        String[] writtenPages = new File(outputDir, "tag-reports").list();
+        assertEquals(expectedPages, new TreeSet<>(Arrays.asList(writtenPages)));
+    }
+
+    @Test
+    public void embeddingsExtractedTest(@TempDir File outputDir) throws IOException {
+        List<String> jsonReports = new ArrayList<>();
+        jsonReports.add(AllFeatureReportsTest.class.getResource("/result.json").getPath());
+        jsonReports.add(AllFeatureReportsTest.class.getResource("/cucumber.json").getPath());
+
+        CucumberReportBuilder embeddingsBuilder =
+            new CucumberReportBuilder(jsonReports, outputDir.getAbsolutePath(), new SpecialProperties());
+
+        Set<String> extracted = new TreeSet<>();
+        for (Feature f : embeddingsBuilder.getProcessedFeatures()) {
+            for (Element e : f.getElements()) {
+                for (Embedding embedding : e.getEmbeddings()) {
+                    assertNull(embedding.getData());
+                    assertTrue(embedding.getFile().endsWith(".png"));
+                    assertTrue(new File(outputDir, "feature-reports/" + embedding.getFile()).isFile());
+                    extracted.add(embedding.getFile());
+                }
+            }
+        }
+        Set<String> written = new TreeSet<>();
+        for (String name : new File(outputDir, "feature-reports/embeddings").list()) {
+            written.add("embeddings/" + name);
+        }
+        assertEquals(extracted, written);
+    }
 }
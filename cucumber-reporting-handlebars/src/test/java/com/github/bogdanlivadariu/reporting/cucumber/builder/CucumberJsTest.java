@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -13,6 +14,7 @@ import com.github.bogdanlivadariu.reporting.cucumber.helpers.SpecialProperties;
 import com.github.bogdanlivadariu.reporting.cucumber.json.models.Tag;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class CucumberJsTest {
 
@@ -21,14 +23,14 @@ public class CucumberJsTest {
     private AllFeatureReports reports;
 
     @BeforeEach
-    public void setUp() throws IOException {
+    public void setUp(@TempDir File outputDir) throws IOException {
         List<String> jsonReports = new ArrayList<>();
 
         String cucumberJsReport = AllFeatureReportsTest.class.getResource("/cucumber-js.json").getPath();
 
         jsonReports.add(cucumberJsReport);
 
-        builder = new CucumberReportBuilder(jsonReports, "output", new SpecialProperties());
+        builder = new CucumberReportBuilder(jsonReports, outputDir.getAbsolutePath(), new SpecialProperties());
         reports = new AllFeatureReports("title", builder.getProcessedFeatures());
 
     }
@@ -0,0 +1,77 @@
+package com.github.bogdanlivadariu.reporting.cucumber.helpers;
+
+import com.github.bogdanlivadariu.reporting.cucumber.json.models.Embedding;
+import com.github.bogdanlivadariu.reporting.cucumber.json.models.Feature;
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EmbeddingExtractorTest {
+
+    private static String embedding(String mimeType, String content) {
+        return "{\"mime_type\": \"" + mimeType + "\", \"data\": \""
+            + Base64.getEncoder().encodeToString(content.getBytes(StandardCharsets.UTF_8)) + "\"}";
+    }
+
+    @Test
+    public void onlyRasterImagesKeepTheirExtension(@TempDir File outputDir) throws IOException {
+        String json = "{\"name\": \"f\", \"elements\": [{\"name\": \"s\", \"type\": \"scenario\", \"steps\": ["
+            + "{\"name\": \"step\", \"result\": {\"status\": \"passed\", \"duration\": 1}, \"embeddings\": ["
+            + embedding("image/png", "png") + ", "
+            + embedding("text/html", "<script>alert(1)</script>") + ", "
+            + embedding("image/svg+xml", "<svg onload='alert(1)'/>") + "]}]}]}";
+        Feature feature = new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+            .create().fromJson(json, Feature.class);
+        feature.postProcess(new SpecialProperties(), "feature");
+
+        new EmbeddingExtractor(outputDir).extract(feature);
+
+        List<Embedding> embeddings = feature.getElements()[0].getEmbeddings();
+        assertEquals(3, embeddings.size());
+        assertTrue(embeddings.get(0).getFile().endsWith(".png"));
+        assertTrue(embeddings.get(1).getFile().endsWith(".bin"));
+        assertTrue(embeddings.get(2).getFile().endsWith(".bin"));
+        for (Embedding embedding : embeddings) {
+            assertTrue(new File(outputDir.getParentFile(), embedding.getFile().replace(
+                EmbeddingExtractor.EMBEDDINGS_FOLDER, outputDir.getName())).isFile());
+        }
+        assertTrue(EmbeddingExtractor.isImage("image/jpeg; charset=binary"));
+        assertTrue(EmbeddingExtractor.isImage("image/jpg"));
+        assertFalse(EmbeddingExtractor.isImage("image/svg+xml"));
+        assertFalse(EmbeddingExtractor.isImage(null));
+    }
+
+    @Test
+    public void onlyBase64DataIsDecoded(@TempDir File outputDir) throws IOException {
+        String wrapped = Base64.getMimeEncoder().encodeToString(new byte[100]);
+        String json = "{\"name\": \"f\", \"elements\": [{\"name\": \"s\", \"type\": \"scenario\", \"steps\": ["
+            + "{\"name\": \"step\", \"result\": {\"status\": \"passed\", \"duration\": 1}, \"embeddings\": ["
+            + "{\"mime_type\": \"text/plain\", \"data\": \"attached as plain text\"}, "
+            + "{\"mime_type\": \"image/jpg\", \"data\": \"" + wrapped.replace("\r\n", "\\r\\n") + "\"}]}]}]}";
+        Feature feature = new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+            .create().fromJson(json, Feature.class);
+        feature.postProcess(new SpecialProperties(), "feature");
+
+        new EmbeddingExtractor(outputDir).extract(feature);
+
+        List<Embedding> embeddings = feature.getElements()[0].getEmbeddings();
+        assertEquals("attached as plain text", new String(Files.readAllBytes(
+            new File(outputDir, new File(embeddings.get(0).getFile()).getName()).toPath()), StandardCharsets.UTF_8),
+            "plain text was decoded as base64");
+        assertTrue(embeddings.get(1).getFile().endsWith(".jpg"), "the image/jpg alias is not an image");
+        assertEquals(100, new File(outputDir, new File(embeddings.get(1).getFile()).getName()).length(),
+            "mime encoded data was not decoded");
+    }
+}
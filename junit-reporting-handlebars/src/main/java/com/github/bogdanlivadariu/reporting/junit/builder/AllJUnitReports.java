@@ -19,18 +19,38 @@ public class AllJUnitReports {
 
     private String pageTitle;
 
-    private Double totalTime = 0.0;
+    private double totalTime = 0.0;
 
     public AllJUnitReports(String pageTitle, List<TestSuiteModel> allTestSuites) {
         this.pageTitle = pageTitle;
         this.allTestSuites = allTestSuites;
         this.suitesCount = allTestSuites.size();
         for (TestSuiteModel ts : this.allTestSuites) {
-            totalTests += Integer.parseInt(ts.getTests());
-            totalFailures += Integer.parseInt(ts.getFailures());
-            totalErrors += Integer.parseInt(ts.getErrors());
-            totalSkipped += Integer.parseInt(ts.getSkipped());
-            totalTime += Double.parseDouble(ts.getTime());
+            totalTests += ts.getTests();
+            totalFailures += ts.getFailures();
+            totalErrors += ts.getErrors();
+            totalSkipped += ts.getSkipped();
+            totalTime += ts.getTime();
+        }
+    }
+
+    /**
+     * Sums the aggregates of reports that together hold the suites, instead of going over the suites again.
+     *
+     * @param pageTitle the title of the page
+     * @param allTestSuites the suites of all the parts
+     * @param parts the aggregated parts of the suites
+     */
+    AllJUnitReports(String pageTitle, List<TestSuiteModel> allTestSuites, AllJUnitReports... parts) {
+        this.pageTitle = pageTitle;
+        this.allTestSuites = allTestSuites;
+        this.suitesCount = allTestSuites.size();
+        for (AllJUnitReports part : parts) {
+            totalTests += part.totalTests;
+            totalFailures += part.totalFailures;
+            totalErrors += part.totalErrors;
+            totalSkipped += part.totalSkipped;
+            totalTime += part.totalTime;
         }
     }
 
@@ -42,8 +62,8 @@ public class AllJUnitReports {
         return pageTitle;
     }
 
-    public String getTotalTime() {
-        return totalTime.toString();
+    public double getTotalTime() {
+        return totalTime;
     }
 
     public int getSuitesCount() {
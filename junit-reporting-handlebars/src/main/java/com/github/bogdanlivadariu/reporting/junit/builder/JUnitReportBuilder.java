@@ -1,25 +1,50 @@
 package com.github.bogdanlivadariu.reporting.junit.builder;
 
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
-import com.github.bogdanlivadariu.reporting.junit.helpers.Constants;
+import com.github.bogdanlivadariu.reporting.core.Parallel;
+import com.github.bogdanlivadariu.reporting.core.ReportCache;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
+import com.github.bogdanlivadariu.reporting.core.TemplateRegistry;
 import com.github.bogdanlivadariu.reporting.junit.helpers.Helpers;
 import com.github.bogdanlivadariu.reporting.junit.xml.models.TestCaseModel;
 import com.github.bogdanlivadariu.reporting.junit.xml.models.TestSuiteModel;
 import com.github.bogdanlivadariu.reporting.junit.xml.models.TestSuitesModel;
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Template;
-import org.apache.commons.io.FileUtils;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class JUnitReportBuilder {
     public static String SUITE_OVERVIEW = "testSuitesOverview.html";
 
+    private static final String TESTSUITES = "testsuites";
+
+    /* mappers and readers are thread safe once configured, all the builders share them */
+    private static final XmlMapper XML_MAPPER = new XmlMapper();
+
+    private static final ObjectReader SUITES_READER = XML_MAPPER.readerFor(TestSuitesModel.class);
+
+    private static final ObjectReader SUITE_READER = XML_MAPPER.readerFor(TestSuiteModel.class);
+
+    /* compiled on first use, then reused by every builder and rendering thread */
+    private static final TemplateRegistry TEMPLATES =
+            new TemplateRegistry(new Helpers(new Handlebars()).registerHelpers());
+
     private final String TEST_OVERVIEW_PATH;
 
     private final String TEST_SUMMARY_PATH;
@@ -30,103 +55,226 @@ public class JUnitReportBuilder {
 
     private final List<TestSuiteModel> processedTestSuites;
 
+    private final int parallelism;
+
+    private final List<String> xmlReports;
+
+    private final List<List<TestSuiteModel>> suitesPerReport = new ArrayList<>();
+
+    private final StatusIndex statusIndex;
+
+    private final boolean summaryOnly;
+
+    private ReportCache reportCache;
+
     public JUnitReportBuilder(List<String> xmlReports, String targetBuildPath) throws IOException {
+        this(xmlReports, targetBuildPath, 1);
+    }
+
+    /**
+     * @param xmlReports the junit xml reports to process
+     * @param targetBuildPath the folder where the html reports will be written
+     * @param parallelism the maximum number of reports parsed, and of pages rendered, at the same time
+     * @throws IOException if any of the reports cannot be read
+     */
+    public JUnitReportBuilder(List<String> xmlReports, String targetBuildPath, int parallelism) throws IOException {
+        this(xmlReports, targetBuildPath, parallelism, false);
+    }
+
+    /**
+     * In the summary-only mode every suite page is written as soon as its report is read, after which the suite keeps
+     * only its counters and its failing test cases. The memory used no longer grows with the number of passing tests,
+     * at the cost of the incremental mode, which does not apply to the suite pages.
+     *
+     * @param xmlReports the junit xml reports to process
+     * @param targetBuildPath the folder where the html reports will be written
+     * @param parallelism the maximum number of reports parsed, and of pages rendered, at the same time
+     * @param summaryOnly whether the passing test cases are dropped once their suite page is written
+     * @throws IOException if any of the reports cannot be read or a suite page cannot be written
+     */
+    public JUnitReportBuilder(List<String> xmlReports, String targetBuildPath, int parallelism, boolean summaryOnly)
+            throws IOException {
+        this(xmlReports, targetBuildPath, parallelism, summaryOnly, null);
+    }
+
+    /**
+     * Same as the constructor without the reports directory, with the page names and element ids derived from the
+     * paths of the reports relative to that directory, so they do not change when reports are added or removed.
+     *
+     * @param xmlReports the junit xml reports to process
+     * @param targetBuildPath the folder where the html reports will be written
+     * @param parallelism the maximum number of reports parsed, and of pages rendered, at the same time
+     * @param summaryOnly whether the passing test cases are dropped once their suite page is written
+     * @param reportsDirectory the folder the reports were collected from, null for the deepest folder holding all of
+     * them
+     * @throws IOException if any of the reports cannot be read or a suite page cannot be written
+     */
+    public JUnitReportBuilder(List<String> xmlReports, String targetBuildPath, int parallelism, boolean summaryOnly,
+            String reportsDirectory) throws IOException {
         TEST_OVERVIEW_PATH = targetBuildPath + "/";
         TEST_SUMMARY_PATH = targetBuildPath + "/test-summary/";
         processedTestSuites = new ArrayList<>();
+        this.parallelism = parallelism;
+        this.xmlReports = new ArrayList<>(xmlReports);
+        this.summaryOnly = summaryOnly;
 
-        processXmlReports(xmlReports);
+        processXmlReports(xmlReports, parallelism, reportsDirectory);
+        statusIndex = new StatusIndex(processedTestSuites);
     }
 
     public List<TestSuiteModel> getProcessedTestSuites() {
         return processedTestSuites;
     }
 
-    private void processSuite(TestSuiteModel ts) {
-        for (TestCaseModel tc : ts.getTestcase()) {
-            tc.postProcess();
-        }
-        ts.postProcess();
-        processedTestSuites.add(ts);
+    /**
+     * @return the totals of all the suites, computed once when the reports were read
+     */
+    public AllJUnitReports getOverview() {
+        return statusIndex.getOverview();
     }
 
-    private List<TestSuiteModel> processXmlReports(List<String> xmlReports) throws IOException {
-        for (String xml : xmlReports) {
-            Logger.getGlobal().info("Processing: " + xml);
-            XmlMapper mapper = new XmlMapper();
-            try {
-                /* we may found <testsuites> or <testsuite> as root element */
+    /**
+     * Enables the incremental mode: suite pages of report files that did not change since the previous build are
+     * restored from the cache instead of being rendered again. Overview pages are always rendered.
+     *
+     * @param reportCache the cache shared by the builds of the job
+     */
+    public void setReportCache(ReportCache reportCache) {
+        this.reportCache = reportCache;
+    }
 
+    private void processSuite(TestSuiteModel ts, String source, List<TestSuiteModel> suites) throws IOException {
+        String id = StableIds.of(source, suites.size());
+        List<TestCaseModel> testCases = ts.getTestcase();
+        for (int index = 0; index < testCases.size(); index++) {
+            testCases.get(index).postProcess(StableIds.child(id, index));
+        }
+        ts.postProcess(id);
+        if (summaryOnly) {
+            TemplateRegistry.render(TEMPLATES.get(TEST_SUMMARY_REPORT), ts, suitePage(ts));
+            ts.retainFailures();
+        }
+        suites.add(ts);
+    }
 
-                TestSuitesModel tss = mapper.readValue(new File(xml), TestSuitesModel.class);
+    private List<TestSuiteModel> processXmlReports(List<String> xmlReports, int parallelism, String reportsDirectory)
+            throws IOException {
+        /* files are parsed concurrently, suites are merged back in the order of the reports */
+        List<String> sources = StableIds.sources(xmlReports, reportsDirectory);
+        List<Integer> reports = IntStream.range(0, xmlReports.size()).boxed().collect(Collectors.toList());
+        suitesPerReport.addAll(Parallel.map(reports, parallelism,
+                report -> processXmlReport(xmlReports.get(report), sources.get(report))));
+        for (List<TestSuiteModel> suites : suitesPerReport) {
+            processedTestSuites.addAll(suites);
+        }
+        return processedTestSuites;
+    }
 
-//                JAXBContext cntx = JAXBContext.newInstance(TestSuitesModel.class);
-//                Unmarshaller unm = cntx.createUnmarshaller();
-//                TestSuitesModel tss = (TestSuitesModel) unm.unmarshal(new File(xml));
-                for (TestSuiteModel ts : tss.getTestsuite()) {
-                    processSuite(ts);
+    private List<TestSuiteModel> processXmlReport(String xml, String source) throws IOException {
+        Logger.getGlobal().info("Processing: " + xml);
+        List<TestSuiteModel> suites = new ArrayList<>();
+        try (InputStream in = new BufferedInputStream(new FileInputStream(xml))) {
+            XMLStreamReader xsr = XML_MAPPER.getFactory().getXMLInputFactory().createXMLStreamReader(in);
+            try {
+                /* we may found <testsuites> or <testsuite> as root element, peek at it and bind only once */
+                while (xsr.getEventType() != XMLStreamConstants.START_ELEMENT && xsr.hasNext()) {
+                    xsr.next();
+                }
+                if (xsr.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                    throw new IOException("No root element found in " + xml);
                 }
-                tss.postProcess();
-            } catch (Throwable e) {
-                TestSuiteModel ts = mapper.readValue(new File(xml), TestSuiteModel.class);
-                processSuite(ts);
-
-//                JAXBContext cntx2 = JAXBContext.newInstance(TestSuiteModel.class);
-//                Unmarshaller unm2 = cntx2.createUnmarshaller();
-//                TestSuiteModel ts = (TestSuiteModel) unm2.unmarshal(new File(xml));
+                if (TESTSUITES.equals(xsr.getLocalName())) {
+                    TestSuitesModel tss = SUITES_READER.readValue(XML_MAPPER.getFactory().createParser(xsr));
+                    for (TestSuiteModel ts : tss.getTestsuite()) {
+                        processSuite(ts, source, suites);
+                    }
+                    tss.postProcess(StableIds.of(source, -1));
+                } else {
+                    TestSuiteModel ts = SUITE_READER.readValue(XML_MAPPER.getFactory().createParser(xsr));
+                    processSuite(ts, source, suites);
+                }
+            } finally {
+                xsr.close();
             }
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not parse " + xml, e);
         }
-        return processedTestSuites;
+        return suites;
     }
 
-    private void writeTestOverviewReport() throws IOException {
-        Template template = new Helpers(new Handlebars()).registerHelpers().compile(TEST_OVERVIEW_REPORT);
-        AllJUnitReports allFeatures = new AllJUnitReports("Test suites overview", processedTestSuites);
-        FileUtils.writeStringToFile(new File(TEST_OVERVIEW_PATH + SUITE_OVERVIEW),
-                template.apply(allFeatures), StandardCharsets.UTF_8);
+    void writeTestOverviewReport() throws IOException {
+        Template template = TEMPLATES.get(TEST_OVERVIEW_REPORT);
+        TemplateRegistry.render(template, statusIndex.getOverview(), new File(TEST_OVERVIEW_PATH + SUITE_OVERVIEW));
     }
 
-    private void writeTestCaseSummaryReport() throws IOException {
-        Template template = new Helpers(new Handlebars()).registerHelpers().compile(TEST_SUMMARY_REPORT);
-        for (TestSuiteModel ts : processedTestSuites) {
-            String content = template.apply(ts);
-            FileUtils.writeStringToFile(new File(TEST_SUMMARY_PATH + ts.getUniqueID() + ".html"),
-                    content, StandardCharsets.UTF_8);
-        }
+    private File suitePage(TestSuiteModel ts) {
+        return new File(TEST_SUMMARY_PATH + ts.getUniqueID() + ".html");
     }
 
-    private void writeTestsPassedReport() throws IOException {
-        Template template = new Helpers(new Handlebars()).registerHelpers().compile(TEST_OVERVIEW_REPORT);
-
-        List<TestSuiteModel> onlyPassed = new ArrayList<>(getProcessedTestSuites());
-        onlyPassed.removeIf(f -> f.getOverallStatus().equalsIgnoreCase(Constants.FAILED));
-
-        AllJUnitReports allTestSuites = new AllJUnitReports("Passed test suites report", onlyPassed);
-        FileUtils.writeStringToFile(new File(TEST_OVERVIEW_PATH + "testsPassed.html"),
-                template.apply(allTestSuites), StandardCharsets.UTF_8);
+    void writeTestCaseSummaryReport() throws IOException {
+        if (summaryOnly) {
+            // the suite pages were written while the reports were read
+            return;
+        }
+        Template template = TEMPLATES.get(TEST_SUMMARY_REPORT);
+        Map<TestSuiteModel, String> cacheKeys = pageCacheKeys(TEST_SUMMARY_REPORT);
+        Parallel.forEach(processedTestSuites, parallelism, ts -> {
+            File page = suitePage(ts);
+            String cacheKey = cacheKeys.get(ts);
+            if (cacheKey != null && reportCache.restore(cacheKey, page)) {
+                return;
+            }
+            TemplateRegistry.render(template, ts, page);
+            if (cacheKey != null) {
+                reportCache.store(cacheKey, page);
+            }
+        });
     }
 
-    private void writeTestsFailedReport() throws IOException {
-        Template template = new Helpers(new Handlebars()).registerHelpers().compile(TEST_OVERVIEW_REPORT);
+    /**
+     * @param location the location of the template the pages are rendered with
+     * @return the cache key of every suite page, made of the content hash of the report the suite was read from and
+     * of the position of the suite in that report, empty when the incremental mode is off
+     * @throws IOException if any of the reports cannot be read
+     */
+    private Map<TestSuiteModel, String> pageCacheKeys(String location) throws IOException {
+        Map<TestSuiteModel, String> cacheKeys = new IdentityHashMap<>();
+        if (reportCache == null) {
+            return cacheKeys;
+        }
+        String salt = ReportCache.libraryVersion(JUnitReportBuilder.class) + TEMPLATES.source(location);
+        List<String> reportKeys =
+                Parallel.map(xmlReports, parallelism, xml -> reportCache.key(new File(xml), salt));
+        for (int report = 0; report < reportKeys.size(); report++) {
+            List<TestSuiteModel> suites = suitesPerReport.get(report);
+            for (int index = 0; index < suites.size(); index++) {
+                cacheKeys.put(suites.get(index), reportKeys.get(report) + "-" + index);
+            }
+        }
+        return cacheKeys;
+    }
 
-        List<TestSuiteModel> onlyFailed = new ArrayList<>(getProcessedTestSuites());
-        onlyFailed.removeIf(f -> f.getOverallStatus().equalsIgnoreCase(Constants.PASSED));
+    void writeTestsPassedReport() throws IOException {
+        Template template = TEMPLATES.get(TEST_OVERVIEW_REPORT);
+        TemplateRegistry.render(template, statusIndex.getPassed(), new File(TEST_OVERVIEW_PATH + "testsPassed.html"));
+    }
 
-        AllJUnitReports allTestSuites = new AllJUnitReports("Failed test suites report", onlyFailed);
-        FileUtils.writeStringToFile(new File(TEST_OVERVIEW_PATH + "testsFailed.html"),
-                template.apply(allTestSuites), StandardCharsets.UTF_8);
+    void writeTestsFailedReport() throws IOException {
+        Template template = TEMPLATES.get(TEST_OVERVIEW_REPORT);
+        TemplateRegistry.render(template, statusIndex.getFailed(), new File(TEST_OVERVIEW_PATH + "testsFailed.html"));
     }
 
     public boolean writeReportsOnDisk() throws IOException {
-        writeTestOverviewReport();
         writeTestCaseSummaryReport();
-        writeTestsPassedReport();
-        writeTestsFailedReport();
+        // the overview pages only read the status index, they are rendered at the same time
+        Parallel.run(parallelism, this::writeTestOverviewReport, this::writeTestsPassedReport,
+                this::writeTestsFailedReport);
+        // the summary-only mode neither stores nor restores pages, the cache is left for the incremental builds
+        if (reportCache != null && !summaryOnly) {
+            reportCache.prune();
+        }
         for (TestSuiteModel ts : processedTestSuites) {
-            if (Integer.parseInt(ts.getFailures()) >= 1
-                    || Integer.parseInt(ts.getErrors()) >= 1
-                    || Integer.parseInt(ts.getSkipped()) >= 1
-                    || Integer.parseInt(ts.getTests()) < 1) {
+            if (ts.getFailures() >= 1 || ts.getErrors() >= 1 || ts.getSkipped() >= 1 || ts.getTests() < 1) {
                 return false;
             }
         }
@@ -0,0 +1,52 @@
+package com.github.bogdanlivadariu.reporting.junit.builder;
+
+import com.github.bogdanlivadariu.reporting.junit.helpers.Constants;
+import com.github.bogdanlivadariu.reporting.junit.xml.models.TestSuiteModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The JUnit suites grouped by overall status, holding the models of the suites overview page and of the passed and
+ * failed tests pages. It is read only once built, so the three pages may be rendered concurrently.
+ */
+final class StatusIndex {
+
+    private final AllJUnitReports overview;
+
+    private final AllJUnitReports passed;
+
+    private final AllJUnitReports failed;
+
+    /**
+     * @param suites the processed suites, in the order of the overview page
+     */
+    StatusIndex(List<TestSuiteModel> suites) {
+        List<TestSuiteModel> passedSuites = new ArrayList<>();
+        List<TestSuiteModel> failedSuites = new ArrayList<>();
+        for (TestSuiteModel suite : suites) {
+            if (Constants.FAILED.equalsIgnoreCase(suite.getOverallStatus())) {
+                failedSuites.add(suite);
+            } else {
+                passedSuites.add(suite);
+            }
+        }
+        passed = new AllJUnitReports("Passed test suites report", Collections.unmodifiableList(passedSuites));
+        failed = new AllJUnitReports("Failed test suites report", Collections.unmodifiableList(failedSuites));
+        overview = new AllJUnitReports("Test suites overview",
+                Collections.unmodifiableList(new ArrayList<>(suites)), passed, failed);
+    }
+
+    AllJUnitReports getOverview() {
+        return overview;
+    }
+
+    AllJUnitReports getPassed() {
+        return passed;
+    }
+
+    AllJUnitReports getFailed() {
+        return failed;
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.bogdanlivadariu.reporting.junit.xml.models;
+
+/**
+ * Parsing of the numeric attributes of the junit xml reports, done once while the report is bound.
+ */
+final class Attributes {
+
+    /**
+     * Value of a count attribute the report does not have, it is computed from the children instead.
+     */
+    static final int MISSING = -1;
+
+    private Attributes() {
+    }
+
+    /**
+     * @param value a duration in seconds, some reporters write it with thousands separators
+     * @return the duration in seconds
+     */
+    static double seconds(String value) {
+        return Double.parseDouble(value.replace(",", ""));
+    }
+}
@@ -1,9 +1,9 @@
 package com.github.bogdanlivadariu.reporting.junit.xml.models;
 
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
 import com.github.bogdanlivadariu.reporting.junit.helpers.Constants;
 
-import java.util.UUID;
 
 import static com.github.bogdanlivadariu.reporting.junit.xml.models.BaseModel.ErrorModel;
 import static com.github.bogdanlivadariu.reporting.junit.xml.models.BaseModel.FailureModel;
@@ -15,7 +15,7 @@ public class TestCaseModel {
     //    @XmlElement(name = "system-out")
     private String systemOut;
 
-    private String time;
+    private double time;
 
     private FailureModel failure;
 
@@ -41,7 +41,19 @@ public class TestCaseModel {
         return uniqueID;
     }
 
+    /**
+     * @deprecated the id is drawn from a process wide counter and changes between builds, pass an id derived
+     * from the report with {@link StableIds#of(String, int)} to {@link #postProcess(String)} instead
+     */
+    @Deprecated
     public void postProcess() {
+        postProcess(StableIds.next());
+    }
+
+    /**
+     * @param uniqueID the id of the test case, unique within its suite page
+     */
+    public void postProcess(String uniqueID) {
         if (failure != null) {
             overallStatus = Constants.FAILED;
         } else if (error != null) {
@@ -49,15 +61,19 @@ public class TestCaseModel {
         } else {
             overallStatus = Constants.PASSED;
         }
-        uniqueID = UUID.randomUUID().toString();
+        this.uniqueID = uniqueID;
     }
 
     public String getSystemOut() {
         return systemOut;
     }
 
-    public String getTime() {
-        return time.replace(",", "");
+    public double getTime() {
+        return time;
+    }
+
+    public void setTime(String time) {
+        this.time = Attributes.seconds(time);
     }
 
     public FailureModel getFailure() {
@@ -3,11 +3,11 @@ package com.github.bogdanlivadariu.reporting.junit.xml.models;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
 import com.github.bogdanlivadariu.reporting.junit.helpers.Constants;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 //import javax.xml.bind.annotation.XmlRootElement;
 
@@ -17,23 +17,21 @@ import java.util.UUID;
 public class TestSuiteModel {
     //    @XmlAttribute
     @JacksonXmlProperty(isAttribute = true)
-    private String failures;
+    private int failures = Attributes.MISSING;
 
-    //    @XmlAttribute
-    @JacksonXmlProperty(isAttribute = true)
-    private String time;
+    private double time = Double.NaN;
 
     //    @XmlAttribute
     @JacksonXmlProperty(isAttribute = true)
-    private String errors;
+    private int errors = Attributes.MISSING;
 
     //    @XmlAttribute
     @JacksonXmlProperty(isAttribute = true)
-    private String tests;
+    private int tests = Attributes.MISSING;
 
     //    @XmlAttribute
     @JacksonXmlProperty(isAttribute = true)
-    private String skipped;
+    private int skipped = Attributes.MISSING;
 
     //    @XmlAttribute
     @JacksonXmlProperty(isAttribute = true)
@@ -54,18 +52,31 @@ public class TestSuiteModel {
     @JacksonXmlElementWrapper(localName = "testcase", useWrapping = false)
     private List<TestCaseModel> testcase;
 
-    private Boolean hasMissingAttributes() {
-        return failures == null || time == null || errors == null || tests == null || skipped == null;
+    private boolean hasMissingAttributes() {
+        return failures == Attributes.MISSING || Double.isNaN(time) || errors == Attributes.MISSING
+            || tests == Attributes.MISSING || skipped == Attributes.MISSING;
     }
 
+    /**
+     * @deprecated the id is drawn from a process wide counter and changes between builds, pass an id derived
+     * from the report with {@link StableIds#of(String, int)} to {@link #postProcess(String)} instead
+     */
+    @Deprecated
     public void postProcess() {
-        uniqueID = UUID.randomUUID().toString();
+        postProcess(StableIds.next());
+    }
+
+    /**
+     * @param uniqueID the id of the test suite, it names the suite page
+     */
+    public void postProcess(String uniqueID) {
+        this.uniqueID = uniqueID;
 
         if (hasMissingAttributes()) {
             int failuresCount = 0;
             int skippedCount = 0;
             int errorsCount = 0;
-            Double totalTime = 0.0;
+            double totalTime = 0.0;
 
             for (TestCaseModel test : getTestcase()) {
                 if (test.getOverallStatus().equals(Constants.FAILED)) {
@@ -75,55 +86,72 @@ public class TestSuiteModel {
                 } else if (test.getOverallStatus().equals(Constants.SKIPPED)) {
                     skippedCount++;
                 }
-                totalTime += Double.parseDouble(test.getTime());
+                totalTime += test.getTime();
             }
 
             // update fields if necessary
-            if (failures == null) {
-                failures = Integer.toString(failuresCount);
+            if (failures == Attributes.MISSING) {
+                failures = failuresCount;
             }
-            if (skipped == null) {
-                skipped = Integer.toString(skippedCount);
+            if (skipped == Attributes.MISSING) {
+                skipped = skippedCount;
             }
-            if (tests == null) {
-                tests = Integer.toString(getTestcase().size());
+            if (tests == Attributes.MISSING) {
+                tests = getTestcase().size();
             }
-            if (time == null) {
-                time = Double.toString(totalTime);
+            if (Double.isNaN(time)) {
+                time = totalTime;
             }
-            if (errors == null) {
-                errors = Integer.toString(errorsCount);
+            if (errors == Attributes.MISSING) {
+                errors = errorsCount;
             }
         }
 
-        if (Integer.parseInt(failures) > 0 || Integer.parseInt(errors) > 0) {
+        if (failures > 0 || errors > 0) {
             overallStatus = Constants.FAILED;
         } else {
             overallStatus = Constants.PASSED;
         }
     }
 
+    /**
+     * Drops the passing test cases and the properties, once the suite page is written. The counters and the failing
+     * test cases are kept.
+     */
+    public void retainFailures() {
+        if (testcase != null) {
+            testcase.removeIf(test -> Constants.PASSED.equals(test.getOverallStatus()));
+        }
+        properties = null;
+    }
+
     public String getUniqueID() {
         return uniqueID;
     }
 
-    public String getFailures() {
+    public int getFailures() {
         return failures;
     }
 
-    public String getTime() {
-        return time.replace(",", "");
+    public double getTime() {
+        return time;
+    }
+
+    //    @XmlAttribute
+    @JacksonXmlProperty(isAttribute = true, localName = "time")
+    public void setTime(String time) {
+        this.time = Attributes.seconds(time);
     }
 
-    public String getErrors() {
+    public int getErrors() {
         return errors;
     }
 
-    public String getTests() {
+    public int getTests() {
         return tests;
     }
 
-    public String getSkipped() {
+    public int getSkipped() {
         return skipped;
     }
 
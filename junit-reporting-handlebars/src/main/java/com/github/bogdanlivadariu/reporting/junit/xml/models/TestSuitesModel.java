@@ -2,27 +2,26 @@ package com.github.bogdanlivadariu.reporting.junit.xml.models;
 
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
 import com.github.bogdanlivadariu.reporting.junit.helpers.Constants;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 //@XmlRootElement(name = "testsuites")
 //@XmlAccessorType(XmlAccessType.FIELD)
 @JacksonXmlRootElement(localName = "testsuites")
 public class TestSuitesModel {
     //    @XmlAttribute
-    private String failures;
+    private int failures = Attributes.MISSING;
 
-    //    @XmlAttribute
-    private String time;
+    private double time = Double.NaN;
 
     //    @XmlAttribute
-    private String errors;
+    private int errors = Attributes.MISSING;
 
     //    @XmlAttribute
-    private String tests;
+    private int tests = Attributes.MISSING;
 
     //    @XmlAttribute
     private String name;
@@ -35,17 +34,30 @@ public class TestSuitesModel {
     @JacksonXmlElementWrapper(localName = "testsuite", useWrapping = false)
     private List<TestSuiteModel> testsuite;
 
-    private Boolean hasMissingAttributes() {
-        return failures == null || time == null || errors == null || tests == null;
+    private boolean hasMissingAttributes() {
+        return failures == Attributes.MISSING || Double.isNaN(time) || errors == Attributes.MISSING
+            || tests == Attributes.MISSING;
     }
 
+    /**
+     * @deprecated the id is drawn from a process wide counter and changes between builds, pass an id derived
+     * from the report with {@link StableIds#of(String, int)} to {@link #postProcess(String)} instead
+     */
+    @Deprecated
     public void postProcess() {
-        uniqueID = UUID.randomUUID().toString();
+        postProcess(StableIds.next());
+    }
+
+    /**
+     * @param uniqueID the id of the test suites
+     */
+    public void postProcess(String uniqueID) {
+        this.uniqueID = uniqueID;
 
         if (hasMissingAttributes()) {
             int failuresCount = 0;
             int errorsCount = 0;
-            Double totalTime = 0.0;
+            double totalTime = 0.0;
 
             for (TestSuiteModel suite : getTestsuite()) {
                 if (suite.getOverallStatus().equals(Constants.FAILED)) {
@@ -53,25 +65,25 @@ public class TestSuitesModel {
                 } else if (suite.getOverallStatus().equals(Constants.ERRORED)) {
                     errorsCount++;
                 }
-                totalTime += Double.parseDouble(suite.getTime());
+                totalTime += suite.getTime();
             }
 
             // update fields if necessary
-            if (failures == null) {
-                failures = Integer.toString(failuresCount);
+            if (failures == Attributes.MISSING) {
+                failures = failuresCount;
             }
-            if (tests == null) {
-                tests = Integer.toString(getTestsuite().size());
+            if (tests == Attributes.MISSING) {
+                tests = getTestsuite().size();
             }
-            if (time == null) {
-                time = Double.toString(totalTime);
+            if (Double.isNaN(time)) {
+                time = totalTime;
             }
-            if (errors == null) {
-                errors = Integer.toString(errorsCount);
+            if (errors == Attributes.MISSING) {
+                errors = errorsCount;
             }
         }
 
-        if (Integer.parseInt(failures) > 0 || Integer.parseInt(errors) > 0) {
+        if (failures > 0 || errors > 0) {
             overallStatus = Constants.FAILED;
         } else {
             overallStatus = Constants.PASSED;
@@ -82,19 +94,24 @@ public class TestSuitesModel {
         return uniqueID;
     }
 
-    public String getFailures() {
+    public int getFailures() {
         return failures;
     }
 
-    public String getTime() {
-        return time.replace(",", "");
+    public double getTime() {
+        return time;
+    }
+
+    //    @XmlAttribute
+    public void setTime(String time) {
+        this.time = Attributes.seconds(time);
     }
 
-    public String getErrors() {
+    public int getErrors() {
         return errors;
     }
 
-    public String getTests() {
+    public int getTests() {
         return tests;
     }
 
@@ -58,6 +58,6 @@ private AllJUnitReports reports;
 
     @Test
     public void totalTimeTest() {
-        assertEquals(reports.getTotalTime(), "0.813");
+        assertEquals(reports.getTotalTime(), 0.813);
     }
 }
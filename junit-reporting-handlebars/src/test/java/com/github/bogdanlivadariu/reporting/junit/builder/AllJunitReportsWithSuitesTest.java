@@ -58,6 +58,6 @@ public class AllJunitReportsWithSuitesTest {
 
     @Test
     public void totalTimeTest() {
-        assertEquals(reports.getTotalTime(), "8.1");
+        assertEquals(reports.getTotalTime(), 8.1);
     }
 }
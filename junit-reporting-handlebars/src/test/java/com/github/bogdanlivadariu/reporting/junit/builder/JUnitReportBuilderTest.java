@@ -1,13 +1,19 @@
 package com.github.bogdanlivadariu.reporting.junit.builder;
 
+import com.github.bogdanlivadariu.reporting.core.ReportCache;
+import com.github.bogdanlivadariu.reporting.junit.xml.models.TestSuiteModel;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit test for simple App.
@@ -45,4 +51,103 @@ public class JUnitReportBuilderTest {
         builder = new JUnitReportBuilder(xmlReports, "out");
         assertEquals(0, builder.getProcessedTestSuites().size(), "reports count is not right");
     }
+
+    @Test
+    public void processedReportsInParallelTest() throws IOException {
+        List<String> xmlReports = new ArrayList<>();
+        xmlReports.add(this.getClass().getClassLoader().getResource("valid-report-2.xml").getPath());
+        xmlReports.add(this.getClass().getClassLoader().getResource("valid-report-1.xml").getPath());
+        JUnitReportBuilder serial = new JUnitReportBuilder(xmlReports, "out");
+        JUnitReportBuilder parallel = new JUnitReportBuilder(xmlReports, "out", 4);
+        assertEquals(3, parallel.getProcessedTestSuites().size(), "reports count is not right");
+        for (int i = 0; i < serial.getProcessedTestSuites().size(); i++) {
+            assertEquals(serial.getProcessedTestSuites().get(i).getName(),
+                parallel.getProcessedTestSuites().get(i).getName(), "suites are not in the reports order");
+        }
+    }
+
+    @Test
+    public void incrementalReportsTest(@TempDir File tempDir) throws IOException {
+        List<String> xmlReports = new ArrayList<>();
+        xmlReports.add(this.getClass().getClassLoader().getResource("valid-report-2.xml").getPath());
+        File cacheDir = new File(tempDir, "cache");
+
+        JUnitReportBuilder first = new JUnitReportBuilder(xmlReports, new File(tempDir, "first").getPath());
+        first.setReportCache(new ReportCache(cacheDir));
+        first.writeReportsOnDisk();
+        assertEquals(2, cacheDir.list((dir, name) -> name.endsWith(".html")).length, "pages were not cached");
+
+        JUnitReportBuilder second = new JUnitReportBuilder(xmlReports, new File(tempDir, "second").getPath());
+        second.setReportCache(new ReportCache(cacheDir));
+        second.writeReportsOnDisk();
+        for (int i = 0; i < first.getProcessedTestSuites().size(); i++) {
+            File firstPage = new File(tempDir, "first/test-summary/"
+                + first.getProcessedTestSuites().get(i).getUniqueID() + ".html");
+            File secondPage = new File(tempDir, "second/test-summary/"
+                + second.getProcessedTestSuites().get(i).getUniqueID() + ".html");
+            assertEquals(new String(Files.readAllBytes(firstPage.toPath())),
+                new String(Files.readAllBytes(secondPage.toPath())), "page was not restored from the cache");
+        }
+        assertEquals(2, cacheDir.list((dir, name) -> name.endsWith(".html")).length, "stale pages were kept");
+    }
+
+    @Test
+    public void stableIdsTest(@TempDir File tempDir) throws IOException {
+        List<String> xmlReports = new ArrayList<>();
+        xmlReports.add(this.getClass().getClassLoader().getResource("valid-report-1.xml").getPath());
+        xmlReports.add(this.getClass().getClassLoader().getResource("valid-report-2.xml").getPath());
+
+        JUnitReportBuilder first = new JUnitReportBuilder(xmlReports, new File(tempDir, "first").getPath());
+        JUnitReportBuilder second = new JUnitReportBuilder(xmlReports, new File(tempDir, "second").getPath(), 2);
+        for (int i = 0; i < first.getProcessedTestSuites().size(); i++) {
+            TestSuiteModel firstSuite = first.getProcessedTestSuites().get(i);
+            TestSuiteModel secondSuite = second.getProcessedTestSuites().get(i);
+            assertEquals(firstSuite.getUniqueID(), secondSuite.getUniqueID(), "suite ids are not stable");
+            for (int j = 0; j < firstSuite.getTestcase().size(); j++) {
+                assertEquals(firstSuite.getTestcase().get(j).getUniqueID(),
+                    secondSuite.getTestcase().get(j).getUniqueID(), "test case ids are not stable");
+            }
+        }
+    }
+
+    @Test
+    public void summaryOnlyTest(@TempDir File tempDir) throws IOException {
+        List<String> xmlReports = new ArrayList<>();
+        xmlReports.add(this.getClass().getClassLoader().getResource("valid-report-2.xml").getPath());
+
+        JUnitReportBuilder builder = new JUnitReportBuilder(xmlReports, tempDir.getPath(), 1, true);
+        TestSuiteModel suite = builder.getProcessedTestSuites().get(0);
+        File page = new File(tempDir, "test-summary/" + suite.getUniqueID() + ".html");
+        assertTrue(page.isFile(), "suite page was not written while reading the report");
+        assertTrue(new String(Files.readAllBytes(page.toPath())).contains("test 6"), "passing test is not on the page");
+        assertEquals(6, suite.getTests(), "counters were not kept");
+        assertEquals(1, suite.getTestcase().size(), "passing test cases were kept");
+        assertEquals("test 5", suite.getTestcase().get(0).getName(), "failing test case was not kept");
+
+        builder.writeReportsOnDisk();
+        assertTrue(new String(Files.readAllBytes(page.toPath())).contains("test 6"), "suite page was written again");
+    }
+
+    @Test
+    public void summaryOnlyKeepsCacheTest(@TempDir File tempDir) throws IOException {
+        List<String> xmlReports = new ArrayList<>();
+        xmlReports.add(this.getClass().getClassLoader().getResource("valid-report-2.xml").getPath());
+        File cacheDir = new File(tempDir, "cache");
+
+        JUnitReportBuilder incremental = new JUnitReportBuilder(xmlReports, new File(tempDir, "first").getPath());
+        incremental.setReportCache(new ReportCache(cacheDir));
+        incremental.writeReportsOnDisk();
+        File[] cachedPages = cacheDir.listFiles((dir, name) -> name.endsWith(".html"));
+        assertEquals(2, cachedPages.length, "pages were not cached");
+        for (File cachedPage : cachedPages) {
+            assertTrue(cachedPage.setLastModified(System.currentTimeMillis() - 60_000));
+        }
+
+        JUnitReportBuilder summaryOnly =
+                new JUnitReportBuilder(xmlReports, new File(tempDir, "second").getPath(), 1, true);
+        summaryOnly.setReportCache(new ReportCache(cacheDir, 0));
+        summaryOnly.writeReportsOnDisk();
+        assertEquals(2, cacheDir.list((dir, name) -> name.endsWith(".html")).length,
+                "the summary-only build pruned the cache");
+    }
 }
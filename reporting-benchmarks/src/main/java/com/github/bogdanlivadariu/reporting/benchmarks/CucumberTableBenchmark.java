@@ -0,0 +1,71 @@
+package com.github.bogdanlivadariu.reporting.benchmarks;
+
+import com.github.bogdanlivadariu.reporting.cucumber.helpers.Helpers;
+import com.github.bogdanlivadariu.reporting.cucumber.json.models.Row;
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders examples tables of growing size through the do_table helper of the cucumber feature pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CucumberTableBenchmark {
+
+    private static final int CELLS = 6;
+
+    @Param({"10", "1000", "10000"})
+    public int rows;
+
+    private Template template;
+
+    private Map<String, List<Row>> model;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        template = new Helpers(new Handlebars()).registerHelpers().compileInline("{{#do_table rows}}{{/do_table}}");
+
+        // the models are only bound by gson, the table is generated as json
+        StringBuilder json = new StringBuilder("[");
+        for (int row = 0; row < rows; row++) {
+            json.append(row == 0 ? "" : ",").append("{\"line\":").append(row + 1).append(",\"cells\":[");
+            for (int cell = 0; cell < CELLS; cell++) {
+                json.append(cell == 0 ? "" : ",").append("\"value <").append(row).append('.').append(cell)
+                    .append("> & more\"");
+            }
+            json.append("]}");
+        }
+        json.append(']');
+        List<Row> table = Arrays.asList(new Gson().fromJson(json.toString(), Row[].class));
+        model = Collections.singletonMap("rows", table);
+    }
+
+    @Benchmark
+    public String renderTable() throws IOException {
+        return template.apply(model);
+    }
+}
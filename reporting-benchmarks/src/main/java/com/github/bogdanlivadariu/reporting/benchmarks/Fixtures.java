@@ -0,0 +1,190 @@
+package com.github.bogdanlivadariu.reporting.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates reports of a given size for the benchmarks. Every tenth test fails with a stack trace, so the failed and
+ * passed pages both have content.
+ */
+public final class Fixtures {
+
+    private static final String STACKTRACE = "java.lang.AssertionError: expected [true] but found [false]\n"
+        + "\tat org.testng.Assert.fail(Assert.java:94)\n"
+        + "\tat org.testng.Assert.assertTrue(Assert.java:42)\n"
+        + "\tat com.example.SampleTest.verify(SampleTest.java:35)\n";
+
+    private Fixtures() {
+    }
+
+    /**
+     * @param directory where the reports are written
+     * @param reports how many report files to write
+     * @param features features per report
+     * @param scenarios scenarios per feature, of five steps each
+     * @return the paths of the reports
+     * @throws IOException if a report cannot be written
+     */
+    public static List<String> cucumber(File directory, int reports, int features, int scenarios)
+        throws IOException {
+        List<String> files = new ArrayList<>();
+        for (int report = 0; report < reports; report++) {
+            File file = new File(directory, "cucumber-" + report + ".json");
+            try (Writer out = writer(file)) {
+                out.write("[");
+                for (int feature = 0; feature < features; feature++) {
+                    out.write(feature == 0 ? "" : ",");
+                    out.write("{\"id\":\"feature-" + report + "-" + feature + "\",\"uri\":\"features/f" + feature
+                        + ".feature\",\"keyword\":\"Feature\",\"name\":\"Feature " + report + "." + feature
+                        + "\",\"line\":1,\"description\":\"\",\"tags\":[{\"name\":\"@tag" + feature % 7
+                        + "\",\"line\":1}],\"elements\":[");
+                    for (int scenario = 0; scenario < scenarios; scenario++) {
+                        out.write(scenario == 0 ? "" : ",");
+                        out.write("{\"id\":\"scenario-" + scenario + "\",\"keyword\":\"Scenario\",\"name\":\"Scenario "
+                            + scenario + "\",\"line\":" + (scenario + 3) + ",\"description\":\"\","
+                            + "\"type\":\"scenario\",\"tags\":[{\"name\":\"@scenario" + scenario % 5
+                            + "\",\"line\":2}],\"steps\":[");
+                        for (int step = 0; step < 5; step++) {
+                            String status = step == 4 && scenario % 10 == 9 ? "failed" : "passed";
+                            out.write(step == 0 ? "" : ",");
+                            out.write("{\"keyword\":\"Given \",\"name\":\"step " + step + " of scenario " + scenario
+                                + "\",\"line\":" + (scenario + step + 4) + ",\"match\":{\"location\":\"Steps.step"
+                                + step + "()\"},\"result\":{\"status\":\"" + status + "\",\"duration\":1234567"
+                                + ("failed".equals(status)
+                                ? ",\"error_message\":\"" + STACKTRACE.replace("\n", "\\n").replace("\t", "\\t") + "\""
+                                : "") + "}}");
+                        }
+                        out.write("]}");
+                    }
+                    out.write("]}");
+                }
+                out.write("]");
+            }
+            files.add(file.getAbsolutePath());
+        }
+        return files;
+    }
+
+    /**
+     * @param directory where the reports are written
+     * @param reports how many report files to write
+     * @param suites test suites per report
+     * @param cases test cases per suite
+     * @return the paths of the reports
+     * @throws IOException if a report cannot be written
+     */
+    public static List<String> junit(File directory, int reports, int suites, int cases) throws IOException {
+        return junitXml(directory, "junit", reports, suites, cases);
+    }
+
+    /**
+     * @param directory where the reports are written
+     * @param reports how many report files to write
+     * @param suites test suites per report
+     * @param cases test cases per suite
+     * @return the paths of the reports, junit xml as written by the rspec junit formatter
+     * @throws IOException if a report cannot be written
+     */
+    public static List<String> rspec(File directory, int reports, int suites, int cases) throws IOException {
+        return junitXml(directory, "rspec", reports, suites, cases);
+    }
+
+    private static List<String> junitXml(File directory, String prefix, int reports, int suites, int cases)
+        throws IOException {
+        List<String> files = new ArrayList<>();
+        for (int report = 0; report < reports; report++) {
+            File file = new File(directory, prefix + "-" + report + ".xml");
+            try (Writer out = writer(file)) {
+                out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testsuites>\n");
+                for (int suite = 0; suite < suites; suite++) {
+                    int failures = 0;
+                    StringBuilder testcases = new StringBuilder();
+                    for (int test = 0; test < cases; test++) {
+                        testcases.append("    <testcase name=\"test").append(test)
+                            .append("\" classname=\"com.example.Suite").append(suite)
+                            .append("\" time=\"0.0").append(test % 10).append("\">");
+                        if (test % 10 == 9) {
+                            failures++;
+                            testcases.append("<failure message=\"expected [true] but found [false]\" ")
+                                .append("type=\"java.lang.AssertionError\"><![CDATA[").append(STACKTRACE)
+                                .append("]]></failure>");
+                        }
+                        testcases.append("</testcase>\n");
+                    }
+                    out.write("  <testsuite name=\"Suite " + report + "." + suite + "\" tests=\"" + cases
+                        + "\" failures=\"" + failures + "\" errors=\"0\" skipped=\"0\" time=\""
+                        + cases * 0.05 + "\">\n    <properties>\n      <property name=\"java.version\" value=\"11\"/>\n"
+                        + "    </properties>\n");
+                    out.write(testcases.toString());
+                    out.write("  </testsuite>\n");
+                }
+                out.write("</testsuites>\n");
+            }
+            files.add(file.getAbsolutePath());
+        }
+        return files;
+    }
+
+    /**
+     * @param directory where the reports are written
+     * @param reports how many report files to write
+     * @param classes test classes per report, every class in its own test
+     * @param methods test methods per class
+     * @return the paths of the reports
+     * @throws IOException if a report cannot be written
+     */
+    public static List<String> testng(File directory, int reports, int classes, int methods) throws IOException {
+        List<String> files = new ArrayList<>();
+        for (int report = 0; report < reports; report++) {
+            File file = new File(directory, "testng-results-" + report + ".xml");
+            try (Writer out = writer(file)) {
+                int total = classes * methods;
+                out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testng-results skipped=\"0\" failed=\""
+                    + total / 10 + "\" ignored=\"0\" total=\"" + total + "\" passed=\"" + (total - total / 10)
+                    + "\">\n  <suite name=\"Suite " + report + "\" duration-ms=\"" + total * 50
+                    + "\" started-at=\"2023-01-01T10:00:00Z\" finished-at=\"2023-01-01T10:10:00Z\">\n");
+                for (int clazz = 0; clazz < classes; clazz++) {
+                    out.write("    <test name=\"Test " + clazz + "\" duration-ms=\"" + methods * 50
+                        + "\" started-at=\"2023-01-01T10:00:00Z\" finished-at=\"2023-01-01T10:01:00Z\">\n"
+                        + "      <class name=\"com.example.Sample" + clazz + "Test\">\n");
+                    for (int method = 0; method < methods; method++) {
+                        String status = method % 10 == 9 ? "FAIL" : "PASS";
+                        out.write("        <test-method status=\"" + status + "\" signature=\"test" + method
+                            + "()[pri:0, instance:com.example.Sample" + clazz + "Test@1]\" name=\"test" + method
+                            + "\" duration-ms=\"" + method % 100 + "\" started-at=\"2023-01-01T10:00:00Z\""
+                            + " finished-at=\"2023-01-01T10:00:01Z\">\n");
+                        if ("FAIL".equals(status)) {
+                            out.write("          <exception class=\"java.lang.AssertionError\">\n"
+                                + "            <message><![CDATA[expected [true] but found [false]]]></message>\n"
+                                + "            <full-stacktrace><![CDATA[" + STACKTRACE + "]]></full-stacktrace>\n"
+                                + "          </exception>\n");
+                        }
+                        out.write("        </test-method>\n");
+                    }
+                    out.write("      </class>\n    </test>\n");
+                }
+                out.write("  </suite>\n</testng-results>\n");
+            }
+            files.add(file.getAbsolutePath());
+        }
+        return files;
+    }
+
+    /**
+     * @param prefix the prefix of the folder name
+     * @return a fresh temporary folder
+     * @throws IOException if the folder cannot be created
+     */
+    public static File directory(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix).toFile();
+    }
+
+    private static Writer writer(File file) throws IOException {
+        return Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+    }
+}
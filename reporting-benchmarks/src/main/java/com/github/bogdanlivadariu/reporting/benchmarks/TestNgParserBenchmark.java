@@ -0,0 +1,82 @@
+package com.github.bogdanlivadariu.reporting.benchmarks;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.github.bogdanlivadariu.reporting.testng.xml.models.TestNgParser;
+import com.github.bogdanlivadariu.reporting.testng.xml.models.TestngResultsModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of testng-results.xml reports through the shared {@link TestNgParser}, against the previous path of the
+ * builder: a stream reader factory looked up for every report and a mapper configured for every builder. The reports
+ * are 4 files of 10 test classes each, with a configurable number of test methods per class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TestNgParserBenchmark {
+
+    private static final TestNgParser PARSER = new TestNgParser();
+
+    @Param({"10", "100"})
+    public int methods;
+
+    private List<File> reports;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        reports = new ArrayList<>();
+        for (String report : Fixtures.testng(Fixtures.directory("testng-parser-benchmark"), 4, 10, methods)) {
+            reports.add(new File(report));
+        }
+    }
+
+    @Benchmark
+    public List<TestngResultsModel> sharedParser() throws IOException, XMLStreamException {
+        List<TestngResultsModel> results = new ArrayList<>();
+        for (File report : reports) {
+            results.add(PARSER.parse(report, report.getName()));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<TestngResultsModel> factoryPerReport() throws IOException, XMLStreamException {
+        XmlMapper mapper = new XmlMapper();
+        List<TestngResultsModel> results = new ArrayList<>();
+        for (File report : reports) {
+            try (InputStream in = new FileInputStream(report)) {
+                XMLStreamReader xsr = XMLInputFactory.newInstance().createXMLStreamReader(in);
+                TestngResultsModel result = mapper.readValue(xsr, TestngResultsModel.class);
+                result.postProcess(report.getName());
+                xsr.close();
+                results.add(result);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.bogdanlivadariu.reporting.cucumber.builder;
+
+import com.github.bogdanlivadariu.reporting.benchmarks.Fixtures;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
+import com.github.bogdanlivadariu.reporting.cucumber.helpers.SpecialProperties;
+import com.github.bogdanlivadariu.reporting.cucumber.json.models.Feature;
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing, post processing and rendering of cucumber json reports, measured separately. The reports are 4 files of 10
+ * features each, with a configurable number of scenarios per feature.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CucumberReportBenchmark {
+
+    private static final Gson GSON =
+        new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES).create();
+
+    @Param({"10", "100"})
+    public int scenarios;
+
+    private List<String> reports;
+
+    private List<String> sources;
+
+    private String output;
+
+    private CucumberReportBuilder builder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        File directory = Fixtures.directory("cucumber-benchmark");
+        reports = Fixtures.cucumber(directory, 4, 10, scenarios);
+        sources = StableIds.sources(reports);
+        output = new File(directory, "output").getAbsolutePath();
+        builder = new CucumberReportBuilder(reports, output, new SpecialProperties());
+    }
+
+    @Benchmark
+    public CucumberReportBuilder parse() throws IOException {
+        return new CucumberReportBuilder(reports, output, new SpecialProperties());
+    }
+
+    @Benchmark
+    public List<Feature> postProcess(BoundFeatures bound) {
+        SpecialProperties props = new SpecialProperties();
+        for (int index = 0; index < bound.features.size(); index++) {
+            bound.features.get(index).postProcess(props, bound.ids.get(index));
+        }
+        return bound.features;
+    }
+
+    @Benchmark
+    public void writeFeatureSummaryReports() throws IOException {
+        builder.writeFeatureSummaryReports();
+    }
+
+    @Benchmark
+    public void writeFeatureOverviewReport() throws IOException {
+        builder.writeFeatureOverviewReport();
+    }
+
+    @Benchmark
+    public void writeFeaturePassedReport() throws IOException {
+        builder.writeFeaturePassedReport();
+    }
+
+    @Benchmark
+    public void writeFeatureFailedReport() throws IOException {
+        builder.writeFeatureFailedReport();
+    }
+
+    @Benchmark
+    public void writeFeatureTagsReport(FreshBuilder fresh) throws IOException {
+        fresh.builder.writeFeatureTagsReport();
+    }
+
+    /**
+     * Features bound from the reports but not post processed yet, bound again before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class BoundFeatures {
+
+        List<Feature> features;
+
+        /* the ids the builder gives the features, index aligned */
+        List<String> ids;
+
+        @Setup(Level.Invocation)
+        public void bind(CucumberReportBenchmark benchmark) throws IOException {
+            features = new ArrayList<>();
+            ids = new ArrayList<>();
+            for (int report = 0; report < benchmark.reports.size(); report++) {
+                try (Reader reader = Files.newBufferedReader(Paths.get(benchmark.reports.get(report)),
+                    StandardCharsets.UTF_8)) {
+                    Feature[] bound = GSON.fromJson(reader, Feature[].class);
+                    for (int index = 0; index < bound.length; index++) {
+                        ids.add(StableIds.of(benchmark.sources.get(report), index));
+                    }
+                    features.addAll(Arrays.asList(bound));
+                }
+            }
+        }
+    }
+
+    /**
+     * The tag pages move the feature links one folder up while they are written, so every invocation needs a builder
+     * that has not written them yet.
+     */
+    @State(Scope.Thread)
+    public static class FreshBuilder {
+
+        CucumberReportBuilder builder;
+
+        @Setup(Level.Invocation)
+        public void create(CucumberReportBenchmark benchmark) throws IOException {
+            builder = new CucumberReportBuilder(benchmark.reports, benchmark.output, new SpecialProperties());
+        }
+    }
+}
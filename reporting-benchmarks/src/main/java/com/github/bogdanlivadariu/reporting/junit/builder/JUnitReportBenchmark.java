@@ -0,0 +1,122 @@
+package com.github.bogdanlivadariu.reporting.junit.builder;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.github.bogdanlivadariu.reporting.benchmarks.Fixtures;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
+import com.github.bogdanlivadariu.reporting.junit.xml.models.TestCaseModel;
+import com.github.bogdanlivadariu.reporting.junit.xml.models.TestSuiteModel;
+import com.github.bogdanlivadariu.reporting.junit.xml.models.TestSuitesModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing, post processing and rendering of junit xml reports, measured separately. The reports are 4 files of 10
+ * suites each, with a configurable number of test cases per suite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JUnitReportBenchmark {
+
+    private static final XmlMapper XML_MAPPER = new XmlMapper();
+
+    @Param({"10", "100"})
+    public int cases;
+
+    private List<String> reports;
+
+    private List<String> sources;
+
+    private String output;
+
+    private JUnitReportBuilder builder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        File directory = Fixtures.directory("junit-benchmark");
+        reports = Fixtures.junit(directory, 4, 10, cases);
+        sources = StableIds.sources(reports);
+        output = new File(directory, "output").getAbsolutePath();
+        builder = new JUnitReportBuilder(reports, output);
+    }
+
+    @Benchmark
+    public JUnitReportBuilder parse() throws IOException {
+        return new JUnitReportBuilder(reports, output);
+    }
+
+    @Benchmark
+    public List<TestSuitesModel> postProcess(BoundSuites bound) {
+        // same order and ids as the builder: test cases, then their suite, then the report
+        for (int report = 0; report < bound.suites.size(); report++) {
+            TestSuitesModel suites = bound.suites.get(report);
+            List<TestSuiteModel> suiteList = suites.getTestsuite();
+            for (int index = 0; index < suiteList.size(); index++) {
+                String id = StableIds.of(sources.get(report), index);
+                List<TestCaseModel> testCases = suiteList.get(index).getTestcase();
+                for (int testCase = 0; testCase < testCases.size(); testCase++) {
+                    testCases.get(testCase).postProcess(StableIds.child(id, testCase));
+                }
+                suiteList.get(index).postProcess(id);
+            }
+            suites.postProcess(StableIds.of(sources.get(report), -1));
+        }
+        return bound.suites;
+    }
+
+    @Benchmark
+    public void writeTestOverviewReport() throws IOException {
+        builder.writeTestOverviewReport();
+    }
+
+    @Benchmark
+    public void writeTestCaseSummaryReport() throws IOException {
+        builder.writeTestCaseSummaryReport();
+    }
+
+    @Benchmark
+    public void writeTestsPassedReport() throws IOException {
+        builder.writeTestsPassedReport();
+    }
+
+    @Benchmark
+    public void writeTestsFailedReport() throws IOException {
+        builder.writeTestsFailedReport();
+    }
+
+    /**
+     * Reports bound but not post processed yet, bound again before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class BoundSuites {
+
+        List<TestSuitesModel> suites;
+
+        @Setup(Level.Invocation)
+        public void bind(JUnitReportBenchmark benchmark) throws IOException {
+            suites = new ArrayList<>();
+            for (String report : benchmark.reports) {
+                suites.add(XML_MAPPER.readValue(new File(report), TestSuitesModel.class));
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.bogdanlivadariu.reporting.rspec.builder;
+
+import com.github.bogdanlivadariu.reporting.benchmarks.Fixtures;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
+import com.github.bogdanlivadariu.reporting.rspec.xml.models.TestSuitesModel;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing, post processing and rendering of rspec junit xml reports, measured separately. The reports are 4 files of
+ * 10 suites each, with a configurable number of test cases per suite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RSpecReportBenchmark {
+
+    @Param({"10", "100"})
+    public int cases;
+
+    private List<String> reports;
+
+    private List<String> sources;
+
+    private String output;
+
+    private JAXBContext context;
+
+    private RSpecReportBuilder builder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, JAXBException {
+        File directory = Fixtures.directory("rspec-benchmark");
+        reports = Fixtures.rspec(directory, 4, 10, cases);
+        sources = StableIds.sources(reports);
+        output = new File(directory, "output").getAbsolutePath();
+        context = JAXBContext.newInstance(TestSuitesModel.class);
+        builder = new RSpecReportBuilder(reports, output);
+    }
+
+    @Benchmark
+    public RSpecReportBuilder parse() throws IOException, JAXBException {
+        return new RSpecReportBuilder(reports, output);
+    }
+
+    @Benchmark
+    public List<TestSuitesModel> postProcess(BoundSuites bound) {
+        for (int report = 0; report < bound.suites.size(); report++) {
+            bound.suites.get(report).postProcess(StableIds.of(sources.get(report), 0));
+        }
+        return bound.suites;
+    }
+
+    @Benchmark
+    public void writeTestOverviewReport() throws IOException {
+        builder.writeTestOverviewReport();
+    }
+
+    @Benchmark
+    public void writeTestCaseSummaryReport() throws IOException {
+        builder.writeTestCaseSummaryReport();
+    }
+
+    @Benchmark
+    public void writeTestsPassedReport() throws IOException {
+        builder.writeTestsPassedReport();
+    }
+
+    @Benchmark
+    public void writeTestsFailedReport() throws IOException {
+        builder.writeTestsFailedReport();
+    }
+
+    /**
+     * Reports unmarshalled but not post processed yet, unmarshalled again before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class BoundSuites {
+
+        List<TestSuitesModel> suites;
+
+        @Setup(Level.Invocation)
+        public void bind(RSpecReportBenchmark benchmark) throws JAXBException {
+            suites = new ArrayList<>();
+            for (String report : benchmark.reports) {
+                suites.add((TestSuitesModel) benchmark.context.createUnmarshaller().unmarshal(new File(report)));
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.bogdanlivadariu.reporting.testng.builder;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.github.bogdanlivadariu.reporting.benchmarks.Fixtures;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
+import com.github.bogdanlivadariu.reporting.testng.xml.models.TestngResultsModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.File;
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing, post processing and rendering of testng-results.xml reports, measured separately. The reports are 4 files
+ * of 10 test classes each, with a configurable number of test methods per class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TestNgReportBenchmark {
+
+    private static final XmlMapper XML_MAPPER = new XmlMapper();
+
+    @Param({"10", "100"})
+    public int methods;
+
+    private List<String> reports;
+
+    private List<String> sources;
+
+    private String output;
+
+    private TestNgReportBuilder builder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, XMLStreamException {
+        File directory = Fixtures.directory("testng-benchmark");
+        reports = Fixtures.testng(directory, 4, 10, methods);
+        sources = StableIds.sources(reports);
+        output = new File(directory, "output").getAbsolutePath();
+        builder = new TestNgReportBuilder(reports, output);
+    }
+
+    @Benchmark
+    public TestNgReportBuilder parse() throws IOException, XMLStreamException {
+        return new TestNgReportBuilder(reports, output);
+    }
+
+    @Benchmark
+    public List<TestngResultsModel> postProcess(BoundResults bound) {
+        for (int report = 0; report < bound.results.size(); report++) {
+            bound.results.get(report).postProcess(StableIds.of(sources.get(report), 0));
+        }
+        return bound.results;
+    }
+
+    @Benchmark
+    public void writeTestsByClassOverview() throws IOException {
+        builder.writeTestsByClassOverview();
+    }
+
+    @Benchmark
+    public void writeTestsByNameOverview() throws IOException {
+        builder.writeTestsByNameOverview();
+    }
+
+    @Benchmark
+    public void writeTestCaseSummaryReport() throws IOException, NoSuchAlgorithmException {
+        builder.writeTestCaseSummaryReport();
+    }
+
+    /**
+     * Reports bound but not post processed yet, bound again before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class BoundResults {
+
+        List<TestngResultsModel> results;
+
+        @Setup(Level.Invocation)
+        public void bind(TestNgReportBenchmark benchmark) throws IOException {
+            results = new ArrayList<>();
+            for (String report : benchmark.reports) {
+                results.add(XML_MAPPER.readValue(new File(report), TestngResultsModel.class));
+            }
+        }
+    }
+}
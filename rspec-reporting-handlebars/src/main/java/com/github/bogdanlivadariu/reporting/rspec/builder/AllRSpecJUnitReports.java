@@ -19,7 +19,7 @@ public class AllRSpecJUnitReports {
 
     private String pageTitle;
 
-    private Double totalTime = 0.0;
+    private double totalTime = 0.0;
 
     public AllRSpecJUnitReports(String pageTitle, List<TestSuiteModel> allTestSuites) {
         this.pageTitle = pageTitle;
@@ -27,15 +27,35 @@ public class AllRSpecJUnitReports {
         this.suitesCount = allTestSuites.size();
 
         for (TestSuiteModel ts : allTestSuites) {
-            totalTests += Integer.parseInt(ts.getTests());
-            totalFailures += Integer.parseInt(ts.getFailures());
-            totalErrors += Integer.parseInt(ts.getErrors());
-            totalSkipped += Integer.parseInt(ts.getSkipped());
-            totalTime += Double.parseDouble(ts.getTime());
+            totalTests += ts.getTests();
+            totalFailures += ts.getFailures();
+            totalErrors += ts.getErrors();
+            totalSkipped += ts.getSkipped();
+            totalTime += ts.getTime();
         }
 
     }
 
+    /**
+     * Sums the aggregates of reports that together hold the suites, instead of going over the suites again.
+     *
+     * @param pageTitle the title of the page
+     * @param allTestSuites the suites of all the parts
+     * @param parts the aggregated parts of the suites
+     */
+    AllRSpecJUnitReports(String pageTitle, List<TestSuiteModel> allTestSuites, AllRSpecJUnitReports... parts) {
+        this.pageTitle = pageTitle;
+        this.allTestSuites = allTestSuites;
+        this.suitesCount = allTestSuites.size();
+        for (AllRSpecJUnitReports part : parts) {
+            totalTests += part.totalTests;
+            totalFailures += part.totalFailures;
+            totalErrors += part.totalErrors;
+            totalSkipped += part.totalSkipped;
+            totalTime += part.totalTime;
+        }
+    }
+
     public List<TestSuiteModel> getAllTestSuites() {
         return allTestSuites;
     }
@@ -44,8 +64,8 @@ public class AllRSpecJUnitReports {
         return pageTitle;
     }
 
-    public String getTotalTime() {
-        return totalTime.toString();
+    public double getTotalTime() {
+        return totalTime;
     }
 
     public int getSuitesCount() {
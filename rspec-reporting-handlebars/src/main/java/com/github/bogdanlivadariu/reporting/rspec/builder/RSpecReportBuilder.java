@@ -1,6 +1,9 @@
 package com.github.bogdanlivadariu.reporting.rspec.builder;
 
-import com.github.bogdanlivadariu.reporting.rspec.helpers.Constants;
+import com.github.bogdanlivadariu.reporting.core.Parallel;
+import com.github.bogdanlivadariu.reporting.core.ReportCache;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
+import com.github.bogdanlivadariu.reporting.core.TemplateRegistry;
 import com.github.bogdanlivadariu.reporting.rspec.helpers.Helpers;
 import com.github.bogdanlivadariu.reporting.rspec.xml.models.TestSuiteModel;
 import com.github.bogdanlivadariu.reporting.rspec.xml.models.TestSuitesModel;
@@ -9,20 +12,33 @@ import com.github.jknack.handlebars.Template;
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Unmarshaller;
-import org.apache.commons.io.FileUtils;
 
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class RSpecReportBuilder {
     public static final String SUITES_OVERVIEW = "testSuitesOverview.html";
 
+    /* unmarshallers are not thread safe, they are borrowed from here by the parsing threads and given back after use */
+    private static final Queue<Unmarshaller> UNMARSHALLERS = new ConcurrentLinkedQueue<>();
+
+    /* creating the context is expensive, it is created on first use and then shared, it is thread safe */
+    private static volatile JAXBContext context;
+
+    /* the rspec templates and their partials, compiled once */
+    private static final TemplateRegistry TEMPLATES =
+        new TemplateRegistry(new Helpers(new Handlebars()).registerHelpers());
+
     private final String TEST_OVERVIEW_PATH;
 
     private final String TEST_SUMMARY_PATH;
@@ -33,82 +49,230 @@ public class RSpecReportBuilder {
 
     private List<TestSuiteModel> processedTestSuites;
 
-    public RSpecReportBuilder(List<String> xmlReports, String targetBuildPath) throws FileNotFoundException,
+    private final int parallelism;
+
+    private final List<String> xmlReports;
+
+    private final List<List<TestSuiteModel>> suitesPerReport = new ArrayList<>();
+
+    private final StatusIndex statusIndex;
+
+    private final boolean summaryOnly;
+
+    private ReportCache reportCache;
+
+    public RSpecReportBuilder(List<String> xmlReports, String targetBuildPath) throws IOException,
             JAXBException {
-        TEST_OVERVIEW_PATH = targetBuildPath + "/";
-        TEST_SUMMARY_PATH = targetBuildPath + "/test-summary/";
-        processedTestSuites = new ArrayList<>();
+        this(xmlReports, targetBuildPath, 1);
+    }
 
-        JAXBContext cntx = JAXBContext.newInstance(TestSuitesModel.class);
+    /**
+     * @param xmlReports the rspec junit xml reports to process
+     * @param targetBuildPath the folder where the html reports will be written
+     * @param parallelism the maximum number of reports parsed, and of pages rendered, at the same time
+     * @throws IOException if any of the reports cannot be read
+     * @throws JAXBException if any of the reports cannot be unmarshalled
+     */
+    public RSpecReportBuilder(List<String> xmlReports, String targetBuildPath, int parallelism)
+            throws IOException, JAXBException {
+        this(xmlReports, targetBuildPath, parallelism, false);
+    }
 
-        Unmarshaller unm = cntx.createUnmarshaller();
+    /**
+     * In the summary-only mode every suite page is written as soon as its report is read, after which the suite keeps
+     * only its counters and its failing test cases. The incremental mode does not apply to the suite pages then.
+     *
+     * @param xmlReports the rspec junit xml reports to process
+     * @param targetBuildPath the folder where the html reports will be written
+     * @param parallelism the maximum number of reports parsed, and of pages rendered, at the same time
+     * @param summaryOnly whether the passing test cases are dropped once their suite page is written
+     * @throws IOException if any of the reports cannot be read or a suite page cannot be written
+     * @throws JAXBException if any of the reports cannot be unmarshalled
+     */
+    public RSpecReportBuilder(List<String> xmlReports, String targetBuildPath, int parallelism, boolean summaryOnly)
+            throws IOException, JAXBException {
+        this(xmlReports, targetBuildPath, parallelism, summaryOnly, null);
+    }
 
-        for (String xml : xmlReports) {
+    /**
+     * Same as the constructor without the reports directory, with the page names and element ids derived from the
+     * paths of the reports relative to that directory, so they do not change when reports are added or removed.
+     *
+     * @param xmlReports the rspec junit xml reports to process
+     * @param targetBuildPath the folder where the html reports will be written
+     * @param parallelism the maximum number of reports parsed, and of pages rendered, at the same time
+     * @param summaryOnly whether the passing test cases are dropped once their suite page is written
+     * @param reportsDirectory the folder the reports were collected from, null for the deepest folder holding all of
+     * them
+     * @throws IOException if any of the reports cannot be read or a suite page cannot be written
+     * @throws JAXBException if any of the reports cannot be unmarshalled
+     */
+    public RSpecReportBuilder(List<String> xmlReports, String targetBuildPath, int parallelism, boolean summaryOnly,
+            String reportsDirectory) throws IOException, JAXBException {
+        TEST_OVERVIEW_PATH = targetBuildPath + "/";
+        TEST_SUMMARY_PATH = targetBuildPath + "/test-summary/";
+        processedTestSuites = new ArrayList<>();
+        this.parallelism = parallelism;
+        this.xmlReports = new ArrayList<>(xmlReports);
+        this.summaryOnly = summaryOnly;
 
-            Logger.getGlobal().info(">>>>>>>>>>" + xml);
-            TestSuitesModel ts = (TestSuitesModel) unm.unmarshal(new File(xml));
+        List<TestSuitesModel> resultsPerReport;
+        try {
+            List<String> sources = StableIds.sources(xmlReports, reportsDirectory);
+            List<Integer> reports = IntStream.range(0, xmlReports.size()).boxed().collect(Collectors.toList());
+            resultsPerReport = Parallel.map(reports, parallelism, report -> {
+                String xml = xmlReports.get(report);
+                Logger.getGlobal().info(">>>>>>>>>>" + xml);
+                TestSuitesModel ts = unmarshal(new File(xml));
 
-            ts.postProcess();
+                ts.postProcess(StableIds.of(sources.get(report), 0));
+                if (summaryOnly) {
+                    Template template = TEMPLATES.get(TEST_SUMMARY_REPORT);
+                    for (TestSuiteModel suite : ts.getTestsuites()) {
+                        TemplateRegistry.render(template, suite, suitePage(suite));
+                        suite.retainFailures();
+                    }
+                }
+                return ts;
+            });
+        } catch (IOException e) {
+            if (e.getClass() == IOException.class && e.getCause() instanceof JAXBException) {
+                throw (JAXBException) e.getCause();
+            }
+            throw e;
+        }
 
+        for (TestSuitesModel ts : resultsPerReport) {
+            suitesPerReport.add(ts.getTestsuites());
             processedTestSuites.addAll(ts.getTestsuites());
         }
+        statusIndex = new StatusIndex(processedTestSuites);
     }
 
-    @SuppressWarnings("unchecked")
-    public static <T extends List<?>> T cast(Object obj) {
-        return (T) obj;
+    public List<TestSuiteModel> getProcessedTestSuites() {
+        return processedTestSuites;
     }
 
-    private void writeTestOverviewReport() throws IOException {
-        Template template = new Helpers(new Handlebars()).registerHelpers().compile(TEST_OVERVIEW_REPORT);
-        AllRSpecJUnitReports allFeatures = new AllRSpecJUnitReports("Test suites overview", processedTestSuites);
-        FileUtils.writeStringToFile(new File(TEST_OVERVIEW_PATH + SUITES_OVERVIEW),
-            template.apply(allFeatures), StandardCharsets.UTF_8);
+    /**
+     * @return the totals of all the suites, computed once when the reports were read
+     */
+    public AllRSpecJUnitReports getOverview() {
+        return statusIndex.getOverview();
     }
 
-    private void writeTestCaseSummaryReport() throws IOException {
-        Template template = new Helpers(new Handlebars()).registerHelpers().compile(TEST_SUMMARY_REPORT);
-        for (TestSuiteModel ts : processedTestSuites) {
-            String content = template.apply(ts);
-            FileUtils.writeStringToFile(new File(TEST_SUMMARY_PATH + ts.getUniqueID() + ".html"),
-                content, StandardCharsets.UTF_8);
+    private static JAXBContext context() throws JAXBException {
+        JAXBContext result = context;
+        if (result == null) {
+            synchronized (RSpecReportBuilder.class) {
+                result = context;
+                if (result == null) {
+                    result = JAXBContext.newInstance(TestSuitesModel.class);
+                    context = result;
+                }
+            }
         }
+        return result;
     }
 
-    private void writeTestsPassedReport() throws IOException {
-        Template template = new Helpers(new Handlebars()).registerHelpers().compile(TEST_OVERVIEW_REPORT);
+    private static TestSuitesModel unmarshal(File xml) throws JAXBException {
+        Unmarshaller unm = UNMARSHALLERS.poll();
+        if (unm == null) {
+            unm = context().createUnmarshaller();
+        }
+        TestSuitesModel ts = (TestSuitesModel) unm.unmarshal(xml);
+        // a failed unmarshaller is dropped, its state is unknown
+        UNMARSHALLERS.offer(unm);
+        return ts;
+    }
 
-        List<TestSuiteModel> onlyPassed = new ArrayList<>(processedTestSuites);
+    /**
+     * Enables the incremental mode: suite pages of report files that did not change since the previous build are
+     * restored from the cache instead of being rendered again. Overview pages are always rendered.
+     *
+     * @param reportCache the cache shared by the builds of the job
+     */
+    public void setReportCache(ReportCache reportCache) {
+        this.reportCache = reportCache;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends List<?>> T cast(Object obj) {
+        return (T) obj;
+    }
 
-        onlyPassed.removeIf(f -> f.getOverallStatus().equalsIgnoreCase(Constants.FAILED));
+    void writeTestOverviewReport() throws IOException {
+        Template template = TEMPLATES.get(TEST_OVERVIEW_REPORT);
+        TemplateRegistry.render(template, statusIndex.getOverview(), new File(TEST_OVERVIEW_PATH + SUITES_OVERVIEW));
+    }
 
-        AllRSpecJUnitReports allTestSuites = new AllRSpecJUnitReports("Passed test suites report", onlyPassed);
-        FileUtils.writeStringToFile(new File(TEST_OVERVIEW_PATH + "testsPassed.html"),
-            template.apply(allTestSuites), StandardCharsets.UTF_8);
+    private File suitePage(TestSuiteModel ts) {
+        return new File(TEST_SUMMARY_PATH + ts.getUniqueID() + ".html");
     }
 
-    private void writeTestsFailedReport() throws IOException {
-        Template template = new Helpers(new Handlebars()).registerHelpers().compile(TEST_OVERVIEW_REPORT);
+    void writeTestCaseSummaryReport() throws IOException {
+        if (summaryOnly) {
+            // the suite pages were written while the reports were read
+            return;
+        }
+        Template template = TEMPLATES.get(TEST_SUMMARY_REPORT);
+        Map<TestSuiteModel, String> cacheKeys = pageCacheKeys(TEST_SUMMARY_REPORT);
+        Parallel.forEach(processedTestSuites, parallelism, ts -> {
+            File page = suitePage(ts);
+            String cacheKey = cacheKeys.get(ts);
+            if (cacheKey != null && reportCache.restore(cacheKey, page)) {
+                return;
+            }
+            TemplateRegistry.render(template, ts, page);
+            if (cacheKey != null) {
+                reportCache.store(cacheKey, page);
+            }
+        });
+    }
 
-        List<TestSuiteModel> onlyFailed = new ArrayList<>(processedTestSuites);
+    /**
+     * @param location the location of the template the pages are rendered with
+     * @return the cache key of every suite page, made of the content hash of the report the suite was read from and
+     * of the position of the suite in that report, empty when the incremental mode is off
+     * @throws IOException if any of the reports cannot be read
+     */
+    private Map<TestSuiteModel, String> pageCacheKeys(String location) throws IOException {
+        Map<TestSuiteModel, String> cacheKeys = new IdentityHashMap<>();
+        if (reportCache == null) {
+            return cacheKeys;
+        }
+        String salt = ReportCache.libraryVersion(RSpecReportBuilder.class) + TEMPLATES.source(location);
+        List<String> reportKeys =
+            Parallel.map(xmlReports, parallelism, xml -> reportCache.key(new File(xml), salt));
+        for (int report = 0; report < reportKeys.size(); report++) {
+            List<TestSuiteModel> suites = suitesPerReport.get(report);
+            for (int index = 0; index < suites.size(); index++) {
+                cacheKeys.put(suites.get(index), reportKeys.get(report) + "-" + index);
+            }
+        }
+        return cacheKeys;
+    }
 
-        onlyFailed.removeIf(f -> f.getOverallStatus().equalsIgnoreCase(Constants.PASSED));
+    void writeTestsPassedReport() throws IOException {
+        Template template = TEMPLATES.get(TEST_OVERVIEW_REPORT);
+        TemplateRegistry.render(template, statusIndex.getPassed(), new File(TEST_OVERVIEW_PATH + "testsPassed.html"));
+    }
 
-        AllRSpecJUnitReports allTestSuites = new AllRSpecJUnitReports("Failed test suites report", onlyFailed);
-        FileUtils.writeStringToFile(new File(TEST_OVERVIEW_PATH + "testsFailed.html"),
-            template.apply(allTestSuites), StandardCharsets.UTF_8);
+    void writeTestsFailedReport() throws IOException {
+        Template template = TEMPLATES.get(TEST_OVERVIEW_REPORT);
+        TemplateRegistry.render(template, statusIndex.getFailed(), new File(TEST_OVERVIEW_PATH + "testsFailed.html"));
     }
 
     public boolean writeReportsOnDisk() throws IOException {
-        writeTestOverviewReport();
         writeTestCaseSummaryReport();
-        writeTestsPassedReport();
-        writeTestsFailedReport();
+        // the overview pages only read the status index, they are rendered at the same time
+        Parallel.run(parallelism, this::writeTestOverviewReport, this::writeTestsPassedReport,
+            this::writeTestsFailedReport);
+        // the summary-only mode neither stores nor restores pages, the cache is left for the incremental builds
+        if (reportCache != null && !summaryOnly) {
+            reportCache.prune();
+        }
         for (TestSuiteModel ts : processedTestSuites) {
-            if (Integer.parseInt(ts.getFailures()) >= 1
-                || Integer.parseInt(ts.getErrors()) >= 1
-                || Integer.parseInt(ts.getSkipped()) >= 1
-                || Integer.parseInt(ts.getTests()) < 1) {
+            if (ts.getFailures() >= 1 || ts.getErrors() >= 1 || ts.getSkipped() >= 1 || ts.getTests() < 1) {
                 return false;
             }
         }
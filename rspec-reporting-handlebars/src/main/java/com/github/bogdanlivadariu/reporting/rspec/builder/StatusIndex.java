@@ -0,0 +1,51 @@
+package com.github.bogdanlivadariu.reporting.rspec.builder;
+
+import com.github.bogdanlivadariu.reporting.rspec.helpers.Constants;
+import com.github.bogdanlivadariu.reporting.rspec.xml.models.TestSuiteModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index of the RSpec suites by overall status, for testSuitesOverview.html, testsPassed.html and testsFailed.html.
+ */
+final class StatusIndex {
+
+    private final AllRSpecJUnitReports overview;
+
+    private final AllRSpecJUnitReports passed;
+
+    private final AllRSpecJUnitReports failed;
+
+    /**
+     * @param suites the processed suites, in the order of the overview page
+     */
+    StatusIndex(List<TestSuiteModel> suites) {
+        List<TestSuiteModel> passedSuites = new ArrayList<>();
+        List<TestSuiteModel> failedSuites = new ArrayList<>();
+        for (TestSuiteModel suite : suites) {
+            if (Constants.FAILED.equalsIgnoreCase(suite.getOverallStatus())) {
+                failedSuites.add(suite);
+            } else {
+                passedSuites.add(suite);
+            }
+        }
+        passed = new AllRSpecJUnitReports("Passed test suites report", Collections.unmodifiableList(passedSuites));
+        failed = new AllRSpecJUnitReports("Failed test suites report", Collections.unmodifiableList(failedSuites));
+        overview = new AllRSpecJUnitReports("Test suites overview",
+            Collections.unmodifiableList(new ArrayList<>(suites)), passed, failed);
+    }
+
+    AllRSpecJUnitReports getOverview() {
+        return overview;
+    }
+
+    AllRSpecJUnitReports getPassed() {
+        return passed;
+    }
+
+    AllRSpecJUnitReports getFailed() {
+        return failed;
+    }
+}
@@ -16,12 +16,13 @@ public class Helpers {
     }
 
     public Handlebars registerHelpers() {
-        handlebar.registerHelper("date", (Helper<String>) (arg0, arg1) -> {
-            int totalSecs = (int) Double.parseDouble(arg0);
+        handlebar.registerHelper("date", (Helper<Number>) (arg0, arg1) -> {
+            double time = arg0.doubleValue();
+            int totalSecs = (int) time;
             int hours = totalSecs / 3600;
             int minutes = (totalSecs % 3600) / 60;
             int seconds = totalSecs % 60;
-            int miliSec = (int) ((Double.parseDouble(arg0) - totalSecs) * 1000);
+            int miliSec = (int) ((time - totalSecs) * 1000);
 
             return String.format("%02d h : %02d m : %02d s : %02d ms", hours, minutes, seconds, miliSec);
         });
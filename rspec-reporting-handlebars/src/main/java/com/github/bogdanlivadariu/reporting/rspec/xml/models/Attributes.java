@@ -0,0 +1,18 @@
+package com.github.bogdanlivadariu.reporting.rspec.xml.models;
+
+/**
+ * Parsing of the numeric attributes of the rspec junit reports, done once while the report is unmarshalled.
+ */
+final class Attributes {
+
+    private Attributes() {
+    }
+
+    /**
+     * @param value a duration in seconds, some reporters write it with thousands separators
+     * @return the duration in seconds, 0 if the attribute is missing
+     */
+    static double seconds(String value) {
+        return value == null ? 0 : Double.parseDouble(value.replace(",", ""));
+    }
+}
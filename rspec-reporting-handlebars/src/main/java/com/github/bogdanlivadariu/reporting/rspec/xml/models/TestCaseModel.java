@@ -1,9 +1,9 @@
 package com.github.bogdanlivadariu.reporting.rspec.xml.models;
 
-import java.util.UUID;
-
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.*;
 
+import com.github.bogdanlivadariu.reporting.core.StableIds;
 import com.github.bogdanlivadariu.reporting.rspec.helpers.Constants;
 import static com.github.bogdanlivadariu.reporting.rspec.xml.models.BaseModel.*;
 
@@ -13,8 +13,11 @@ public class TestCaseModel {
     @XmlElement(name = "system-out")
     private String systemOut;
 
-    @XmlAttribute
-    private String time;
+    @XmlAttribute(name = "time")
+    private String timeAttribute;
+
+    @XmlTransient
+    private double time;
 
     @XmlElement(name = "failure")
     private FailureModel failure;
@@ -43,7 +46,19 @@ public class TestCaseModel {
         return uniqueID;
     }
 
+    /**
+     * @deprecated the id is drawn from a process wide counter and changes between builds, pass an id derived
+     * from the report with {@link StableIds#of(String, int)} to {@link #postProcess(String)} instead
+     */
+    @Deprecated
     public void postProcess() {
+        postProcess(StableIds.next());
+    }
+
+    /**
+     * @param uniqueID the id of the test case, unique within its suite page
+     */
+    public void postProcess(String uniqueID) {
         if (failure != null) {
             overallStatus = Constants.FAILED;
         } else if (error != null) {
@@ -51,15 +66,26 @@ public class TestCaseModel {
         } else {
             overallStatus = Constants.PASSED;
         }
-        uniqueID = UUID.randomUUID().toString();
+        this.uniqueID = uniqueID;
+    }
+
+    /**
+     * Called by JAXB once the test case and its children are unmarshalled.
+     *
+     * @param unmarshaller the unmarshaller
+     * @param parent the enclosing element
+     */
+    void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        time = Attributes.seconds(timeAttribute);
+        timeAttribute = null;
     }
 
     public String getSystemOut() {
         return systemOut;
     }
 
-    public String getTime() {
-        return time.replace(",", "");
+    public double getTime() {
+        return time;
     }
 
     public FailureModel getFailure() {
@@ -1,29 +1,33 @@
 package com.github.bogdanlivadariu.reporting.rspec.xml.models;
 
 import java.util.List;
-import java.util.UUID;
 
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.*;
 
+import com.github.bogdanlivadariu.reporting.core.StableIds;
 import com.github.bogdanlivadariu.reporting.rspec.helpers.Constants;
 
 @XmlRootElement(name = "testsuite")
 @XmlAccessorType(XmlAccessType.FIELD)
 public class TestSuiteModel {
     @XmlAttribute
-    private String failures = "0";
+    private int failures;
 
-    @XmlAttribute
-    private String time;
+    /**
+     * The sum of the test case times, the time attribute of the suite is not used.
+     */
+    @XmlTransient
+    private double time;
 
     @XmlAttribute
-    private String errors = "0";
+    private int errors;
 
     @XmlAttribute
-    private String tests = "0";
+    private int tests;
 
     @XmlAttribute
-    private String skipped = "0";
+    private int skipped;
 
     @XmlAttribute
     private String name;
@@ -39,43 +43,76 @@ public class TestSuiteModel {
     @XmlElement(name = "testcase")
     private List<TestCaseModel> testcase;
 
+    /**
+     * @deprecated the id is drawn from a process wide counter and changes between builds, pass an id derived
+     * from the report with {@link StableIds#of(String, int)} to {@link #postProcess(String)} instead
+     */
+    @Deprecated
     public void postProcess() {
-        if (Integer.parseInt(failures) > 0) {
+        postProcess(StableIds.next());
+    }
+
+    /**
+     * @param uniqueID the id of the test suite, it names the suite page
+     */
+    public void postProcess(String uniqueID) {
+        if (failures > 0) {
             overallStatus = Constants.FAILED;
         } else {
             overallStatus = Constants.PASSED;
         }
-        for (TestCaseModel tc : testcase) {
-            tc.postProcess();
+        for (int index = 0; index < testcase.size(); index++) {
+            testcase.get(index).postProcess(StableIds.child(uniqueID, index));
+        }
+        this.uniqueID = uniqueID;
+    }
+
+    /**
+     * Called by JAXB once the suite and its children are unmarshalled.
+     *
+     * @param unmarshaller the unmarshaller
+     * @param parent the enclosing element
+     */
+    void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        if (testcase != null) {
+            for (TestCaseModel tc : testcase) {
+                time += tc.getTime();
+            }
+        }
+    }
+
+    /**
+     * Drops the passing test cases and the properties, once the suite page is written. The counters and the failing
+     * test cases are kept.
+     */
+    public void retainFailures() {
+        if (testcase != null) {
+            testcase.removeIf(test -> Constants.PASSED.equals(test.getOverallStatus()));
         }
-        uniqueID = UUID.randomUUID().toString();
+        properties = null;
     }
 
     public String getUniqueID() {
         return uniqueID;
     }
 
-    public String getFailures() {
+    public int getFailures() {
         return failures;
     }
 
-    public String getTime() {
-        Double val = 0.0;
-        for (TestCaseModel tc : getTestcase()) {
-            val += Double.parseDouble(tc.getTime());
-        }
-        return val.toString();
+    public double getTime() {
+        return time;
     }
 
-    public String getErrors() {
+    public int getErrors() {
         return errors;
     }
 
-    public String getTests() {
+    public int getTests() {
         return tests;
     }
 
-    public String getSkipped() {
+    public int getSkipped() {
         return skipped;
     }
 
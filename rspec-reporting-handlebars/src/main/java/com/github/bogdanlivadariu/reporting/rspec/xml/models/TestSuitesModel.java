@@ -1,30 +1,34 @@
 package com.github.bogdanlivadariu.reporting.rspec.xml.models;
 
+import com.github.bogdanlivadariu.reporting.core.StableIds;
 import com.github.bogdanlivadariu.reporting.rspec.helpers.Constants;
 
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.*;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @XmlRootElement(name = "testsuites")
 @XmlAccessorType(XmlAccessType.FIELD)
 public class TestSuitesModel {
 
     @XmlAttribute
-    private String failures = "0";
+    private int failures;
 
     @XmlAttribute
-    private String skipped = "0";
+    private int skipped;
 
     @XmlAttribute
-    private String tests = "0";
+    private int tests;
 
     @XmlAttribute
-    private String errors = "0";
+    private int errors;
 
-    @XmlAttribute
-    private String time;
+    @XmlAttribute(name = "time")
+    private String timeAttribute;
+
+    @XmlTransient
+    private double time;
 
     @XmlAttribute
     private String timestamp;
@@ -36,7 +40,7 @@ public class TestSuitesModel {
     @XmlElement(name = "testsuite")
     private List<TestSuiteModel> testsuites;
 
-    public String getErrors() {
+    public int getErrors() {
         return errors;
     }
 
@@ -52,19 +56,19 @@ public class TestSuitesModel {
         return testsuites == null ? new ArrayList<TestSuiteModel>() : testsuites;
     }
 
-    public String getFailures() {
+    public int getFailures() {
         return failures;
     }
 
-    public String getSkipped() {
+    public int getSkipped() {
         return skipped;
     }
 
-    public String getTests() {
+    public int getTests() {
         return tests;
     }
 
-    public String getTime() {
+    public double getTime() {
         return time;
     }
 
@@ -72,15 +76,39 @@ public class TestSuitesModel {
         return timestamp;
     }
 
+    /**
+     * @deprecated the id is drawn from a process wide counter and changes between builds, pass an id derived
+     * from the report with {@link StableIds#of(String, int)} to {@link #postProcess(String)} instead
+     */
+    @Deprecated
     public void postProcess() {
-        uniqueID = UUID.randomUUID().toString();
-        for (TestSuiteModel ts : getTestsuites()) {
-            ts.postProcess();
+        postProcess(StableIds.next());
+    }
+
+    /**
+     * @param uniqueID the id of the report, the ids of its suites and test cases are derived from it
+     */
+    public void postProcess(String uniqueID) {
+        this.uniqueID = uniqueID;
+        List<TestSuiteModel> suites = getTestsuites();
+        for (int index = 0; index < suites.size(); index++) {
+            suites.get(index).postProcess(StableIds.child(uniqueID, index));
         }
-        if (Integer.parseInt(failures) > 0) {
+        if (failures > 0) {
             overallStatus = Constants.FAILED;
         } else {
             overallStatus = Constants.PASSED;
         }
     }
+
+    /**
+     * Called by JAXB once the report and its children are unmarshalled.
+     *
+     * @param unmarshaller the unmarshaller
+     * @param parent the enclosing element
+     */
+    void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        time = Attributes.seconds(timeAttribute);
+        timeAttribute = null;
+    }
 }
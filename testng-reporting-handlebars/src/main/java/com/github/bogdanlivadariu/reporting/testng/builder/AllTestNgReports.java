@@ -22,7 +22,7 @@ public class AllTestNgReports {
 
     private String pageTitle;
 
-    private Long totalTime = (long) 0;
+    private long totalTime = 0;
 
     public AllTestNgReports(String pageTitle, List<TestngResultsModel> allTestngResults) {
         this.pageTitle = pageTitle;
@@ -44,7 +44,7 @@ public class AllTestNgReports {
         return pageTitle;
     }
 
-    public Long getTotalTime() {
+    public long getTotalTime() {
         return totalTime;
     }
 
@@ -1,31 +1,42 @@
 package com.github.bogdanlivadariu.reporting.testng.builder;
 
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.github.bogdanlivadariu.reporting.core.Parallel;
+import com.github.bogdanlivadariu.reporting.core.ReportCache;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
+import com.github.bogdanlivadariu.reporting.core.TemplateRegistry;
 import com.github.bogdanlivadariu.reporting.testng.helpers.Helpers;
-import com.github.bogdanlivadariu.reporting.testng.helpers.StringUtils;
 import com.github.bogdanlivadariu.reporting.testng.xml.models.ClassModel;
 import com.github.bogdanlivadariu.reporting.testng.xml.models.SuiteModel;
 import com.github.bogdanlivadariu.reporting.testng.xml.models.TestModel;
+import com.github.bogdanlivadariu.reporting.testng.xml.models.TestNgParser;
 import com.github.bogdanlivadariu.reporting.testng.xml.models.TestngResultsModel;
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Template;
-import org.apache.commons.io.FileUtils;
 
 import javax.xml.stream.FactoryConfigurationError;
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamReader;
 import java.io.*;
-import java.math.BigInteger;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class TestNgReportBuilder {
     public static final String TESTS_BY_CLASS_OVERVIEW = "testsByClassOverview.html";
 
+    /* the parser is thread safe once configured, all the builders share it */
+    private static final TestNgParser PARSER = new TestNgParser();
+
+    /* templates compiled by any builder are reused by the following builds */
+    private static final TemplateRegistry TEMPLATES =
+            new TemplateRegistry(new Helpers(new Handlebars()).registerHelpers());
+
     private final String testOverviewPath;
 
     private final String classesSummaryPath;
@@ -38,86 +49,214 @@ public class TestNgReportBuilder {
 
     private final List<TestngResultsModel> processedTestNgReports;
 
+    private final AllTestNgReports overview;
+
+    private final int parallelism;
+
+    private final List<String> xmlReports;
+
+    private final boolean summaryOnly;
+
+    /* in the summary-only mode, the index of the last report that claimed each class page */
+    private final ConcurrentMap<File, Integer> pageOwners = new ConcurrentHashMap<>();
+
+    /* in the summary-only mode, held while a class page is written so its writers do not interleave */
+    private final ConcurrentMap<File, Object> pageLocks = new ConcurrentHashMap<>();
+
+    private ReportCache reportCache;
+
 
     public TestNgReportBuilder(List<String> xmlReports, String targetBuildPath)
             throws XMLStreamException, FactoryConfigurationError, IOException {
+        this(xmlReports, targetBuildPath, 1);
+    }
+
+    /**
+     * @param xmlReports the testng-results.xml reports to process
+     * @param targetBuildPath the folder where the html reports will be written
+     * @param parallelism the maximum number of reports parsed, and of pages rendered, at the same time
+     * @throws XMLStreamException if any of the reports is not well formed
+     * @throws IOException if any of the reports cannot be read
+     */
+    public TestNgReportBuilder(List<String> xmlReports, String targetBuildPath, int parallelism)
+            throws XMLStreamException, FactoryConfigurationError, IOException {
+        this(xmlReports, targetBuildPath, parallelism, false);
+    }
+
+    /**
+     * In the summary-only mode the reports are streamed and every class page is written as soon as the class is read,
+     * after which the class keeps only its counters and its failed and skipped test methods. The incremental mode does
+     * not apply to the class pages then.
+     *
+     * @param xmlReports the testng-results.xml reports to process
+     * @param targetBuildPath the folder where the html reports will be written
+     * @param parallelism the maximum number of reports parsed, and of pages rendered, at the same time
+     * @param summaryOnly whether the passed test methods are dropped once their class page is written
+     * @throws XMLStreamException if any of the reports is not well formed
+     * @throws IOException if any of the reports cannot be read or a class page cannot be written
+     */
+    public TestNgReportBuilder(List<String> xmlReports, String targetBuildPath, int parallelism, boolean summaryOnly)
+            throws XMLStreamException, FactoryConfigurationError, IOException {
+        this(xmlReports, targetBuildPath, parallelism, summaryOnly, null);
+    }
+
+    /**
+     * Same as the constructor without the reports directory, with the page names and element ids derived from the
+     * paths of the reports relative to that directory, so they do not change when reports are added or removed.
+     *
+     * @param xmlReports the testng-results.xml reports to process
+     * @param targetBuildPath the folder where the html reports will be written
+     * @param parallelism the maximum number of reports parsed, and of pages rendered, at the same time
+     * @param summaryOnly whether the passed test methods are dropped once their class page is written
+     * @param reportsDirectory the folder the reports were collected from, null for the deepest folder holding all of
+     * them
+     * @throws XMLStreamException if any of the reports is not well formed
+     * @throws IOException if any of the reports cannot be read or a class page cannot be written
+     */
+    public TestNgReportBuilder(List<String> xmlReports, String targetBuildPath, int parallelism, boolean summaryOnly,
+            String reportsDirectory) throws XMLStreamException, FactoryConfigurationError, IOException {
         testOverviewPath = targetBuildPath + "/";
         classesSummaryPath = targetBuildPath + "/classes-summary/";
         processedTestNgReports = new ArrayList<>();
+        this.parallelism = parallelism;
+        this.xmlReports = new ArrayList<>(xmlReports);
+        this.summaryOnly = summaryOnly;
 
-        XmlMapper mapper = new XmlMapper();
+        try {
+            List<String> sources = StableIds.sources(xmlReports, reportsDirectory);
+            List<Integer> reports = IntStream.range(0, xmlReports.size()).boxed().collect(Collectors.toList());
+            processedTestNgReports.addAll(Parallel.map(reports, parallelism,
+                    report -> parseReport(xmlReports.get(report), sources.get(report), report)));
+        } catch (IOException e) {
+            if (e.getClass() == IOException.class && e.getCause() instanceof XMLStreamException) {
+                throw (XMLStreamException) e.getCause();
+            }
+            throw e;
+        }
+        overview = new AllTestNgReports("Tests by class overview report", processedTestNgReports);
+    }
 
-        for (String xml : xmlReports) {
-            InputStream inputStream = new FileInputStream(xml);
-            XMLStreamReader xmlStream = XMLInputFactory.newInstance().createXMLStreamReader(inputStream);
-            TestngResultsModel ts = mapper.readValue(xmlStream, TestngResultsModel.class);
-            ts.postProcess();
-            processedTestNgReports.add(ts);
-            inputStream.close();
-            xmlStream.close();
+    private TestngResultsModel parseReport(String xml, String source, int report)
+            throws XMLStreamException, IOException {
+        if (summaryOnly) {
+            // one class is held in memory at a time, its page is written before the next one is read
+            Template template = TEMPLATES.get(testSummaryReport);
+            return PARSER.stream(new File(xml), StableIds.of(source, 0),
+                    (tm, cm) -> writeClassPage(template, cm, report));
         }
+        return PARSER.parse(new File(xml), StableIds.of(source, 0));
+    }
+
+    private void writeClassPage(Template template, ClassModel cm, int report) throws IOException {
+        File page = new File(classesSummaryPath + cm.getPageKey() + ".html");
+        // a page shared by several reports is left to the last of them, as when the pages are written at the end
+        if (pageOwners.merge(page, report, Math::max) == report) {
+            synchronized (pageLocks.computeIfAbsent(page, key -> new Object())) {
+                // a later report may have claimed the page in the meantime, it writes the page then
+                if (pageOwners.get(page) == report) {
+                    generateHtmlReport(template, page, cm);
+                }
+            }
+        }
+        cm.retainFailures();
     }
 
     public List<TestngResultsModel> getProcessedTestNgReports() {
         return processedTestNgReports;
     }
 
-    private void writeTestsByClassOverview() throws IOException {
-        Template template = new Helpers(new Handlebars()).registerHelpers().compile(testOverviewReport);
-        AllTestNgReports allTestNgReports =
-                new AllTestNgReports("Tests by class overview report", processedTestNgReports);
-        FileUtils.writeStringToFile(new File(testOverviewPath + TESTS_BY_CLASS_OVERVIEW),
-                template.apply(allTestNgReports), StandardCharsets.UTF_8);
+    /**
+     * @return the totals of all the reports, computed once when the reports were read
+     */
+    public AllTestNgReports getOverview() {
+        return overview;
+    }
+
+    /**
+     * Enables the incremental mode: class pages of report files that did not change since the previous build are
+     * restored from the cache instead of being rendered again. Overview pages are always rendered.
+     *
+     * @param reportCache the cache shared by the builds of the job
+     */
+    public void setReportCache(ReportCache reportCache) {
+        this.reportCache = reportCache;
     }
 
-    private void writeTestsByNameOverview() throws IOException {
-        Template template = new Helpers(new Handlebars()).registerHelpers().compile(testNameOverviewReport);
+    void writeTestsByClassOverview() throws IOException {
+        Template template = TEMPLATES.get(testOverviewReport);
+        TemplateRegistry.render(template, overview, new File(testOverviewPath + TESTS_BY_CLASS_OVERVIEW));
+    }
+
+    void writeTestsByNameOverview() throws IOException {
+        Template template = TEMPLATES.get(testNameOverviewReport);
         AllTestNgReports allTestNgReports =
                 new AllTestNgReports("Tests by name overview report", processedTestNgReports);
-        FileUtils.writeStringToFile(new File(testOverviewPath + "testsByNameOverview.html"),
-                template.apply(allTestNgReports), StandardCharsets.UTF_8);
+        TemplateRegistry.render(template, allTestNgReports, new File(testOverviewPath + "testsByNameOverview.html"));
     }
 
-    private void writeTestCaseSummaryReport() throws IOException, NoSuchAlgorithmException {
+    void writeTestCaseSummaryReport() throws IOException, NoSuchAlgorithmException {
+        if (summaryOnly) {
+            // the class pages were written while the reports were read
+            return;
+        }
         Template templateTestClassReport =
-                new Helpers(new Handlebars()).registerHelpers().compile(testSummaryReport);
-        for (TestngResultsModel tngr : processedTestNgReports) {
-            for (SuiteModel sm : tngr.getSuites()) {
+                TEMPLATES.get(testSummaryReport);
+        List<String> reportKeys = reportCacheKeys(testSummaryReport);
+        // classes with the same test and class name share a page, the last one wins just like in a serial run
+        Map<File, ClassModel> pages = new LinkedHashMap<>();
+        Map<File, String> cacheKeys = new HashMap<>();
+        for (int report = 0; report < processedTestNgReports.size(); report++) {
+            for (SuiteModel sm : processedTestNgReports.get(report).getSuites()) {
                 for (TestModel tm : sm.getTests()) {
-                    generateHtmlReport(templateTestClassReport, tm);
+                    for (ClassModel cm : tm.getClasses()) {
+                        String pageName = cm.getPageKey();
+                        File page = new File(classesSummaryPath + pageName + ".html");
+                        pages.put(page, cm);
+                        if (reportCache != null) {
+                            cacheKeys.put(page, reportKeys.get(report) + "-" + pageName);
+                        }
+                    }
                 }
             }
         }
-    }
-
-    private void generateHtmlReport(Template templateTestClassReport, TestModel tm) throws IOException, NoSuchAlgorithmException {
-        for (ClassModel cm : tm.getClasses()) {
-
-            File file = new File(classesSummaryPath + StringUtils.getMd5From(tm.getName() + cm.getName()) + ".html");
-            if (!file.exists()) {
-                file.getParentFile().mkdirs();
-                file.createNewFile();
+        Parallel.forEach(new ArrayList<>(pages.entrySet()), parallelism, page -> {
+            String cacheKey = cacheKeys.get(page.getKey());
+            if (cacheKey != null && reportCache.restore(cacheKey, page.getKey())) {
+                return;
+            }
+            generateHtmlReport(templateTestClassReport, page.getKey(), page.getValue());
+            if (cacheKey != null) {
+                reportCache.store(cacheKey, page.getKey());
             }
-            OutputStream os =
-                    new FileOutputStream(file);
+        });
+    }
 
-            PrintWriter rw = new PrintWriter(os);
-            rw.print(templateTestClassReport.apply(cm));
-            rw.close();
-            os.close();
+    /**
+     * @param location the location of the template the pages are rendered with
+     * @return the content hash of every report, index aligned with the processed reports, empty when the
+     * incremental mode is off
+     * @throws IOException if any of the reports cannot be read
+     */
+    private List<String> reportCacheKeys(String location) throws IOException {
+        if (reportCache == null) {
+            return new ArrayList<>();
         }
+        String salt = ReportCache.libraryVersion(TestNgReportBuilder.class) + TEMPLATES.source(location);
+        return Parallel.map(xmlReports, parallelism, xml -> reportCache.key(new File(xml), salt));
     }
 
-    private String getMd5(String source) throws NoSuchAlgorithmException {
-        MessageDigest md5 = MessageDigest.getInstance("MD5");
-        md5.update(StandardCharsets.UTF_8.encode(source));
-        return String.format("%032x", new BigInteger(1, md5.digest()));
+    private void generateHtmlReport(Template templateTestClassReport, File file, ClassModel cm) throws IOException {
+        TemplateRegistry.render(templateTestClassReport, cm, file);
     }
 
     public boolean writeReportsOnDisk() throws IOException, NoSuchAlgorithmException {
-        writeTestsByClassOverview();
-        writeTestsByNameOverview();
+        // both overview pages only read the processed reports, they are rendered at the same time
+        Parallel.run(parallelism, this::writeTestsByClassOverview, this::writeTestsByNameOverview);
         writeTestCaseSummaryReport();
+        // the summary-only mode neither stores nor restores pages, the cache is left for the incremental builds
+        if (reportCache != null && !summaryOnly) {
+            reportCache.prune();
+        }
         for (TestngResultsModel ts : processedTestNgReports) {
             if (ts.getTotalClassesFailed() >= 1
                     || ts.getTotalClassesSkipped() >= 1) {
@@ -3,7 +3,6 @@ package com.github.bogdanlivadariu.reporting.testng.helpers;
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Helper;
 
-import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
@@ -58,13 +57,7 @@ public class Helpers {
     }
 
     private Helper<String> md5Helper() {
-        return (arg0, arg1) -> {
-            try {
-                return StringUtils.getMd5From(arg0 + arg1.param(0));
-            } catch (NoSuchAlgorithmException e) {
-                return "ERR";
-            }
-        };
+        return (arg0, arg1) -> StringUtils.md5Hex(arg0 + arg1.param(0));
     }
 
     private CharSequence getIsConfigApplyResult(Boolean arg0) {
@@ -1,14 +1,32 @@
 package com.github.bogdanlivadariu.reporting.testng.helpers;
 
-import java.math.BigInteger;
+import com.github.bogdanlivadariu.reporting.core.Hex;
+
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 public class StringUtils {
+
+    /* digests are not thread safe, every thread reuses its own */
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("every java platform supports MD5", e);
+        }
+    });
+
     public static String getMd5From(String source) throws NoSuchAlgorithmException {
-        MessageDigest md5 = MessageDigest.getInstance("MD5");
-        md5.update(StandardCharsets.UTF_8.encode(source));
-        return String.format("%032x", new BigInteger(1, md5.digest()));
+        return md5Hex(source);
+    }
+
+    /**
+     * @param source the text to hash, encoded as UTF-8
+     * @return the MD5 digest of the text as 32 lower case hex digits
+     */
+    public static String md5Hex(String source) {
+        byte[] digest = MD5.get().digest(source.getBytes(StandardCharsets.UTF_8));
+        return Hex.encode(digest);
     }
 }
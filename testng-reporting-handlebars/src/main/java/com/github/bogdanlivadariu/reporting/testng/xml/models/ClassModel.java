@@ -3,6 +3,8 @@ package com.github.bogdanlivadariu.reporting.testng.xml.models;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
+import com.github.bogdanlivadariu.reporting.testng.helpers.StringUtils;
 import org.testng.reporters.XMLReporterConfig;
 
 import java.util.ArrayList;
@@ -28,8 +30,28 @@ public class ClassModel {
 
     private long totalDuration = 0;
 
-    public void postProcess() {
-        for (TestMethodModel tm : getTestMethods()) {
+    private String pageKey;
+
+    private boolean postProcessed;
+
+    /**
+     * Computes the counters and the page key of the class, only once: the streamed reports post process every class as
+     * soon as it is read, before the enclosing test is post processed.
+     *
+     * @param testName the name of the test the class belongs to, part of the page key
+     */
+    public void postProcess(String testName) {
+        if (postProcessed) {
+            return;
+        }
+        postProcessed = true;
+        pageKey = StringUtils.md5Hex(testName + getName());
+        List<TestMethodModel> methods = getTestMethods();
+        for (int index = 0; index < methods.size(); index++) {
+            // only has to be unique within the class page
+            methods.get(index).setUniqueID(StableIds.child("method", index));
+        }
+        for (TestMethodModel tm : methods) {
             String status = tm.getStatus();
             if (status.equalsIgnoreCase(XMLReporterConfig.TEST_FAILED)
                     || status.equalsIgnoreCase(XMLReporterConfig.TEST_SKIPPED)) {
@@ -61,10 +83,25 @@ public class ClassModel {
         }
     }
 
+    /**
+     * Drops the passed test methods, once the class page is written. The counters and the failed and skipped test
+     * methods are kept.
+     */
+    public void retainFailures() {
+        testMethods.removeIf(tm -> tm.getStatus().equalsIgnoreCase(XMLReporterConfig.TEST_PASSED));
+    }
+
     public String getName() {
         return name.replaceAll(" ", "_");
     }
 
+    /**
+     * @return the name of the class page without extension, classes of the same name in tests of the same name share it
+     */
+    public String getPageKey() {
+        return pageKey;
+    }
+
     public List<TestMethodModel> getTestMethods() {
         return testMethods;
     }
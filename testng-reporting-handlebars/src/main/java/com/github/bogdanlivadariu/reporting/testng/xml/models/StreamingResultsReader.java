@@ -0,0 +1,99 @@
+package com.github.bogdanlivadariu.reporting.testng.xml.models;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+
+/**
+ * Walks a testng-results.xml report with the stream reader instead of binding it as a whole. Suites and tests are
+ * read from their attributes only, every class is bound on its own, post processed and handed to a listener before
+ * the next one is read, so the listener can write its page and drop what it no longer needs.
+ */
+public final class StreamingResultsReader {
+
+    private static final String RESULTS = "testng-results";
+
+    private static final String SUITE = "suite";
+
+    private static final String TEST = "test";
+
+    private static final String CLASS = "class";
+
+    private final XmlMapper mapper;
+
+    /**
+     * @param mapper binds the classes, it is thread safe once configured so readers may share it
+     */
+    public StreamingResultsReader(XmlMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param xsr the reader of the report, positioned before its root element
+     * @param uniqueID the id of the report, the ids of its suites are derived from it
+     * @param listener receives every class of the report, in file order
+     * @return the post processed report
+     * @throws XMLStreamException if the report is not well formed
+     * @throws IOException if a class cannot be bound, a class is found outside a test, or the listener fails
+     */
+    public TestngResultsModel read(XMLStreamReader xsr, String uniqueID, ClassListener listener)
+            throws XMLStreamException, IOException {
+        TestngResultsModel results = new TestngResultsModel();
+        SuiteModel suite = null;
+        TestModel test = null;
+        while (xsr.hasNext()) {
+            if (xsr.next() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            switch (xsr.getLocalName()) {
+                case RESULTS:
+                    results.readAttributes(xsr);
+                    break;
+                case SUITE:
+                    suite = new SuiteModel();
+                    suite.readAttributes(xsr);
+                    results.getSuites().add(suite);
+                    test = null;
+                    break;
+                case TEST:
+                    if (suite == null) {
+                        throw new IOException("Found a test outside of a suite at " + xsr.getLocation());
+                    }
+                    test = new TestModel();
+                    test.readAttributes(xsr);
+                    suite.getTests().add(test);
+                    break;
+                case CLASS:
+                    if (test == null) {
+                        throw new IOException("Found a class outside of a test at " + xsr.getLocation());
+                    }
+                    // leaves the reader on the end of the class element
+                    ClassModel cm = mapper.readValue(xsr, ClassModel.class);
+                    cm.postProcess(test.getName());
+                    test.getClasses().add(cm);
+                    listener.onClass(test, cm);
+                    break;
+                default:
+                    break;
+            }
+        }
+        results.postProcess(uniqueID);
+        return results;
+    }
+
+    /**
+     * Receives the classes of a report as they are read.
+     */
+    public interface ClassListener {
+
+        /**
+         * @param test the test the class belongs to, its classes read so far included
+         * @param cm the post processed class
+         * @throws IOException if the class cannot be handled
+         */
+        void onClass(TestModel test, ClassModel cm) throws IOException;
+    }
+}
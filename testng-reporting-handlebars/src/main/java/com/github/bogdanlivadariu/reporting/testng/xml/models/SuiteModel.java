@@ -3,8 +3,10 @@ package com.github.bogdanlivadariu.reporting.testng.xml.models;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
 import org.testng.reporters.XMLReporterConfig;
 
+import javax.xml.stream.XMLStreamReader;
 import java.util.*;
 
 @JacksonXmlRootElement(localName = "suite")
@@ -17,7 +19,7 @@ public class SuiteModel {
     private final List<GroupModel> groups = new ArrayList<>();
     private String name;
     @JacksonXmlProperty(localName = "duration-ms")
-    private Long durationMs;
+    private long durationMs;
     @JacksonXmlProperty(localName = "started-at")
     private String startedAt;
     @JacksonXmlProperty(localName = "finished-at")
@@ -43,9 +45,21 @@ public class SuiteModel {
 //        return (T) obj;
 //    }
 
+    /**
+     * @deprecated the id is drawn from a process wide counter and changes between builds, pass an id derived
+     * from the report with {@link StableIds#of(String, int)} to {@link #postProcess(String)} instead
+     */
+    @Deprecated
     public void postProcess() {
+        postProcess(StableIds.next());
+    }
+
+    /**
+     * @param uniqueID the id of the suite
+     */
+    public void postProcess(String uniqueID) {
         groupedTestMethods = new LinkedHashMap<>();
-        uniqueID = UUID.randomUUID().toString();
+        this.uniqueID = uniqueID;
         for (TestModel tm : getTests()) {
             tm.postProcess();
             totalPassed += tm.getTotalPassed();
@@ -59,11 +73,24 @@ public class SuiteModel {
         totalTests = totalPassed + totalFailed + totalSkipped;
     }
 
+    /**
+     * Reads the attributes of the element, for the reports that are streamed instead of bound.
+     *
+     * @param xsr the reader, positioned on the start of the element
+     */
+    void readAttributes(XMLStreamReader xsr) {
+        name = xsr.getAttributeValue(null, "name");
+        String duration = xsr.getAttributeValue(null, "duration-ms");
+        durationMs = duration == null ? 0 : Long.parseLong(duration);
+        startedAt = xsr.getAttributeValue(null, "started-at");
+        finishedAt = xsr.getAttributeValue(null, "finished-at");
+    }
+
     public String getName() {
         return name;
     }
 
-    public Long getDurationMs() {
+    public long getDurationMs() {
         return durationMs;
     }
 
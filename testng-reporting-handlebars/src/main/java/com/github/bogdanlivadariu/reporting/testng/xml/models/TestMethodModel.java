@@ -3,11 +3,9 @@ package com.github.bogdanlivadariu.reporting.testng.xml.models;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
 
-import java.util.UUID;
-
 @JacksonXmlRootElement(localName = "test-method")
 public class TestMethodModel {
-    private final String uniqueID;
+    private String uniqueID;
     private String status;
     private String signature;
     private String name;
@@ -17,7 +15,7 @@ public class TestMethodModel {
     @JacksonXmlProperty(localName = "is-config")
     private boolean isConfig;
     @JacksonXmlProperty(localName = "duration-ms")
-    private Long durationMs;
+    private long durationMs;
     @JacksonXmlProperty(localName = "started-at")
     private String startedAt;
     @JacksonXmlProperty(localName = "finished-at")
@@ -30,10 +28,6 @@ public class TestMethodModel {
     @JacksonXmlProperty(localName = "depends-on-methods")
     private String dependsOnMethods;
 
-    public TestMethodModel() {
-        uniqueID = UUID.randomUUID().toString();
-    }
-
     public String getStatus() {
         return status;
     }
@@ -50,7 +44,7 @@ public class TestMethodModel {
         return isConfig;
     }
 
-    public Long getDurationMs() {
+    public long getDurationMs() {
         return durationMs;
     }
 
@@ -74,4 +68,8 @@ public class TestMethodModel {
         return uniqueID;
     }
 
+    public void setUniqueID(String uniqueID) {
+        this.uniqueID = uniqueID;
+    }
+
 }
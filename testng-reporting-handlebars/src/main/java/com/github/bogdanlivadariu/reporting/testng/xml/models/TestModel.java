@@ -4,6 +4,7 @@ import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
 
+import javax.xml.stream.XMLStreamReader;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,13 +29,25 @@ public class TestModel {
 
     public void postProcess() {
         for (ClassModel cm : getClasses()) {
-            cm.postProcess();
+            cm.postProcess(getName());
             totalPassed += cm.getTotalPassed();
             totalFailed += cm.getTotalFailed();
             totalSkipped += cm.getTotalSkipped();
         }
     }
 
+    /**
+     * Reads the attributes of the element, for the reports that are streamed instead of bound.
+     *
+     * @param xsr the reader, positioned on the start of the element
+     */
+    void readAttributes(XMLStreamReader xsr) {
+        name = xsr.getAttributeValue(null, "name");
+        durationMs = xsr.getAttributeValue(null, "duration-ms");
+        startedAt = xsr.getAttributeValue(null, "started-at");
+        finishedAt = xsr.getAttributeValue(null, "finished-at");
+    }
+
     public String getName() {
         return name;
     }
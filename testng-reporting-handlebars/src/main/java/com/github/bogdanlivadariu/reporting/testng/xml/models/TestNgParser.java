@@ -0,0 +1,80 @@
+package com.github.bogdanlivadariu.reporting.testng.xml.models;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Parsing context of the testng-results.xml reports. The stream reader factory, the mapper and the reader bound to
+ * {@link TestngResultsModel} are configured once and are thread safe, so one parser is shared by all the threads
+ * parsing reports, instead of looking the factory up and configuring a mapper for every report.
+ */
+public final class TestNgParser {
+
+    private final XmlMapper mapper;
+
+    private final XMLInputFactory inputFactory;
+
+    private final ObjectReader resultsReader;
+
+    private final StreamingResultsReader streamingReader;
+
+    public TestNgParser() {
+        mapper = new XmlMapper();
+        inputFactory = mapper.getFactory().getXMLInputFactory();
+        resultsReader = mapper.readerFor(TestngResultsModel.class);
+        streamingReader = new StreamingResultsReader(mapper);
+    }
+
+    /**
+     * Binds the whole report.
+     *
+     * @param xml the report
+     * @param uniqueID the id of the report, the ids of its suites are derived from it
+     * @return the post processed report
+     * @throws XMLStreamException if the report is not well formed
+     * @throws IOException if the report cannot be read or bound
+     */
+    public TestngResultsModel parse(File xml, String uniqueID) throws XMLStreamException, IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(xml))) {
+            XMLStreamReader xsr = inputFactory.createXMLStreamReader(in);
+            try {
+                TestngResultsModel results = resultsReader.readValue(mapper.getFactory().createParser(xsr));
+                results.postProcess(uniqueID);
+                return results;
+            } finally {
+                xsr.close();
+            }
+        }
+    }
+
+    /**
+     * Reads the report one class at a time, see {@link StreamingResultsReader}.
+     *
+     * @param xml the report
+     * @param uniqueID the id of the report, the ids of its suites are derived from it
+     * @param listener receives every class of the report, in file order
+     * @return the post processed report
+     * @throws XMLStreamException if the report is not well formed
+     * @throws IOException if the report cannot be read, a class cannot be bound or the listener fails
+     */
+    public TestngResultsModel stream(File xml, String uniqueID, StreamingResultsReader.ClassListener listener)
+            throws XMLStreamException, IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(xml))) {
+            XMLStreamReader xsr = inputFactory.createXMLStreamReader(in);
+            try {
+                return streamingReader.read(xsr, uniqueID, listener);
+            } finally {
+                xsr.close();
+            }
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.github.bogdanlivadariu.reporting.testng.xml.models;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import com.github.bogdanlivadariu.reporting.core.StableIds;
 
+import javax.xml.stream.XMLStreamReader;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,7 +26,7 @@ public class TestngResultsModel {
     private String ignored;
     @JacksonXmlProperty(localName = "reporter-output")
     private ReporterOutputModel reporterOutput;
-    private Long totalTime = (long) 0;
+    private long totalTime = 0;
     private int totalClasses;
 
     private int totalClassesTests = 0;
@@ -35,9 +37,23 @@ public class TestngResultsModel {
 
     private int totalClassesSkipped = 0;
 
+    /**
+     * @deprecated the id is drawn from a process wide counter and changes between builds, pass an id derived
+     * from the report with {@link StableIds#of(String, int)} to {@link #postProcess(String)} instead
+     */
+    @Deprecated
     public void postProcess() {
-        for (SuiteModel sm : getSuites()) {
-            sm.postProcess();
+        postProcess(StableIds.next());
+    }
+
+    /**
+     * @param uniqueID the id of the report, the ids of its suites are derived from it
+     */
+    public void postProcess(String uniqueID) {
+        List<SuiteModel> suites = getSuites();
+        for (int index = 0; index < suites.size(); index++) {
+            SuiteModel sm = suites.get(index);
+            sm.postProcess(StableIds.child(uniqueID, index));
             totalTime += sm.getDurationMs();
             totalClasses += sm.getTotalClasses();
             totalClassesTests += sm.getTotalTests();
@@ -47,6 +63,19 @@ public class TestngResultsModel {
         }
     }
 
+    /**
+     * Reads the attributes of the element, for the reports that are streamed instead of bound.
+     *
+     * @param xsr the reader, positioned on the start of the element
+     */
+    void readAttributes(XMLStreamReader xsr) {
+        skipped = xsr.getAttributeValue(null, "skipped");
+        failed = xsr.getAttributeValue(null, "failed");
+        total = xsr.getAttributeValue(null, "total");
+        passed = xsr.getAttributeValue(null, "passed");
+        ignored = xsr.getAttributeValue(null, "ignored");
+    }
+
     public String getSkipped() {
         return skipped;
     }
@@ -67,7 +96,7 @@ public class TestngResultsModel {
         return suites;
     }
 
-    public Long getTotalTime() {
+    public long getTotalTime() {
         return totalTime;
     }
 
@@ -4,8 +4,10 @@ import com.github.bogdanlivadariu.reporting.testng.builder.AllTestNgReports;
 import com.github.bogdanlivadariu.reporting.testng.builder.TestNgReportBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import javax.xml.stream.XMLStreamException;
+import java.io.File;
 import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
@@ -22,10 +24,10 @@ public class AllTestNgReportsTest {
     private AllTestNgReports reports;
 
     @BeforeEach
-    public void setUp() throws IOException, XMLStreamException, NoSuchAlgorithmException {
+    public void setUp(@TempDir File outputDir) throws IOException, XMLStreamException, NoSuchAlgorithmException {
         xmlReports = new ArrayList<>();
         xmlReports.add(reportPath);
-        builder = new TestNgReportBuilder(xmlReports, "out");
+        builder = new TestNgReportBuilder(xmlReports, outputDir.getAbsolutePath());
         reports = new AllTestNgReports("title", builder.getProcessedTestNgReports());
 
         builder.writeReportsOnDisk();
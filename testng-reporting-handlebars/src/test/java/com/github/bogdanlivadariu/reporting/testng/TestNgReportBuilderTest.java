@@ -1,13 +1,20 @@
 package com.github.bogdanlivadariu.reporting.testng;
 
 import com.github.bogdanlivadariu.reporting.testng.builder.TestNgReportBuilder;
+import com.github.bogdanlivadariu.reporting.testng.xml.models.TestngResultsModel;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import javax.xml.stream.XMLStreamException;
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -21,21 +28,59 @@ public class TestNgReportBuilderTest {
     }
 
     @Test
-    public void processedReportsTest() throws IOException, XMLStreamException {
+    public void processedReportsTest(@TempDir File outputDir) throws IOException, XMLStreamException {
         List<String> xmlReports = new ArrayList<>();
         String report = this.getClass().getClassLoader().getResource("testng-results.xml").getPath();
         xmlReports.add(report);
 
 
-        TestNgReportBuilder builder = new TestNgReportBuilder(xmlReports, "out");
+        TestNgReportBuilder builder = new TestNgReportBuilder(xmlReports, outputDir.getAbsolutePath());
 
         System.out.println(builder);
 
         assertEquals(1, builder.getProcessedTestNgReports().size(), "reports count is not correct");
 
         xmlReports.clear();
-        builder = new TestNgReportBuilder(xmlReports, "out");
+        builder = new TestNgReportBuilder(xmlReports, outputDir.getAbsolutePath());
 
         assertEquals(0, builder.getProcessedTestNgReports().size(), "reports count is not correct");
     }
+
+    @Test
+    public void summaryOnlyTest(@TempDir File tempDir) throws Exception {
+        List<String> xmlReports = new ArrayList<>();
+        xmlReports.add(this.getClass().getClassLoader().getResource("testng-results.xml").getPath());
+
+        TestNgReportBuilder full = new TestNgReportBuilder(xmlReports, new File(tempDir, "full").getPath());
+        full.writeReportsOnDisk();
+        TestNgReportBuilder summary = new TestNgReportBuilder(xmlReports, new File(tempDir, "summary").getPath(), 1,
+                true);
+
+        TestngResultsModel expected = full.getProcessedTestNgReports().get(0);
+        TestngResultsModel actual = summary.getProcessedTestNgReports().get(0);
+        assertEquals(expected.getTotalClasses(), actual.getTotalClasses(), "classes count is not correct");
+        assertEquals(expected.getTotalClassesTests(), actual.getTotalClassesTests(), "tests count is not correct");
+        assertEquals(expected.getTotalClassesFailed(), actual.getTotalClassesFailed(), "failed count is not correct");
+        assertEquals(expected.getTotalClassesSkipped(), actual.getTotalClassesSkipped(),
+                "skipped count is not correct");
+        assertEquals(expected.getTotalTime(), actual.getTotalTime(), "total time is not correct");
+
+        String[] pages = new File(tempDir, "full/classes-summary").list();
+        Arrays.sort(pages);
+        String[] streamedPages = new File(tempDir, "summary/classes-summary").list();
+        Arrays.sort(streamedPages);
+        assertArrayEquals(pages, streamedPages, "class pages were not written while streaming");
+        for (String page : pages) {
+            assertEquals(pageContent(new File(tempDir, "full/classes-summary/" + page)),
+                    pageContent(new File(tempDir, "summary/classes-summary/" + page)), "streamed class page differs");
+        }
+    }
+
+    /**
+     * @return the content of the page, without the generation time of its footer
+     */
+    private static String pageContent(File page) throws IOException {
+        return new String(Files.readAllBytes(page.toPath()), StandardCharsets.UTF_8)
+                .replaceAll("Page generated at: [^<]*", "Page generated at:");
+    }
 }